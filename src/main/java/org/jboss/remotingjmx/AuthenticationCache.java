@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.io.File;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.net.ssl.SSLContext;
+
+import org.jboss.logging.Logger;
+import org.wildfly.client.config.ConfigXMLParseException;
+import org.wildfly.security.auth.client.AuthenticationConfiguration;
+import org.wildfly.security.auth.client.AuthenticationContext;
+import org.wildfly.security.auth.client.AuthenticationContextConfigurationClient;
+import org.wildfly.security.auth.client.ElytronXmlParser;
+
+/**
+ * Cache of the authentication state used by the RemotingConnector when establishing connections.
+ *
+ * Parsed authentication client configurations are cached by the URI of the configuration, where the configuration is a file the
+ * modification time of the file is also checked so the configuration is parsed again after it has been modified.
+ *
+ * The AuthenticationConfiguration and SSLContext resolved for a target URI are cached for each AuthenticationContext, reusing
+ * the SSLContext also allows TLS sessions to be resumed when reconnecting to the same host.
+ */
+class AuthenticationCache {
+
+    private static final Logger log = Logger.getLogger(AuthenticationCache.class);
+    private static final AuthenticationContextConfigurationClient AUTH_CONFIGURATION_CLIENT = doPrivileged(AuthenticationContextConfigurationClient.ACTION);
+
+    private static final Map<URI, ParsedConfiguration> parsedConfigurations = new HashMap<URI, ParsedConfiguration>();
+    private static final Map<AuthenticationContext, Map<URI, ResolvedConfiguration>> resolvedConfigurations = new WeakHashMap<AuthenticationContext, Map<URI, ResolvedConfiguration>>();
+
+    // Prevent instantiation.
+    private AuthenticationCache() {
+    }
+
+    /**
+     * Obtain the AuthenticationContext defined by the authentication client configuration at the specified URI.
+     */
+    static AuthenticationContext getAuthenticationContext(final URI authConfigUri) throws GeneralSecurityException,
+            ConfigXMLParseException {
+        final long lastModified = getLastModified(authConfigUri);
+        synchronized (parsedConfigurations) {
+            ParsedConfiguration parsed = parsedConfigurations.get(authConfigUri);
+            if (parsed != null && parsed.lastModified == lastModified) {
+                return parsed.authenticationContext;
+            }
+        }
+
+        log.tracef("Parsing authentication configuration %s", authConfigUri);
+        AuthenticationContext authenticationContext = ElytronXmlParser.parseAuthenticationClientConfiguration(authConfigUri)
+                .create();
+        synchronized (parsedConfigurations) {
+            parsedConfigurations.put(authConfigUri, new ParsedConfiguration(lastModified, authenticationContext));
+        }
+
+        return authenticationContext;
+    }
+
+    /**
+     * Obtain the AuthenticationConfiguration and SSLContext for the target URI from the AuthenticationContext.
+     *
+     * If no SSLContext could be obtained the AuthenticationConfiguration is still cached, subsequent calls only try again to
+     * obtain the SSLContext.
+     */
+    static ResolvedConfiguration getResolvedConfiguration(final URI uri, final AuthenticationContext authenticationContext) {
+        ResolvedConfiguration cached;
+        synchronized (resolvedConfigurations) {
+            Map<URI, ResolvedConfiguration> resolved = resolvedConfigurations.get(authenticationContext);
+            cached = resolved != null ? resolved.get(uri) : null;
+        }
+        if (cached != null && cached.sslContextResolved) {
+            return cached;
+        }
+
+        AuthenticationConfiguration authenticationConfiguration = cached != null ? cached.authenticationConfiguration
+                : AUTH_CONFIGURATION_CLIENT.getAuthenticationConfiguration(uri, authenticationContext);
+        SSLContext sslContext = null;
+        boolean sslContextResolved = true;
+        try {
+            sslContext = AUTH_CONFIGURATION_CLIENT.getSSLContext(uri, authenticationContext);
+        } catch (GeneralSecurityException e) {
+            log.trace("No SSLContext available", e);
+            sslContextResolved = false;
+        }
+
+        ResolvedConfiguration configuration = new ResolvedConfiguration(authenticationConfiguration, sslContext,
+                sslContextResolved);
+        synchronized (resolvedConfigurations) {
+            Map<URI, ResolvedConfiguration> resolved = resolvedConfigurations.get(authenticationContext);
+            if (resolved == null) {
+                resolved = new HashMap<URI, ResolvedConfiguration>();
+                resolvedConfigurations.put(authenticationContext, resolved);
+            }
+            resolved.put(uri, configuration);
+        }
+
+        return configuration;
+    }
+
+    private static long getLastModified(final URI authConfigUri) {
+        if ("file".equals(authConfigUri.getScheme())) {
+            try {
+                return new File(authConfigUri).lastModified();
+            } catch (IllegalArgumentException e) {
+                log.tracef(e, "Unable to check modification time of %s", authConfigUri);
+            }
+        }
+
+        // Configurations that are not files are parsed once.
+        return 0;
+    }
+
+    private static class ParsedConfiguration {
+
+        private final long lastModified;
+        private final AuthenticationContext authenticationContext;
+
+        private ParsedConfiguration(final long lastModified, final AuthenticationContext authenticationContext) {
+            this.lastModified = lastModified;
+            this.authenticationContext = authenticationContext;
+        }
+
+    }
+
+    /**
+     * The AuthenticationConfiguration and SSLContext resolved for a target URI.
+     */
+    static class ResolvedConfiguration {
+
+        private final AuthenticationConfiguration authenticationConfiguration;
+        private final SSLContext sslContext;
+        private final boolean sslContextResolved;
+
+        private ResolvedConfiguration(final AuthenticationConfiguration authenticationConfiguration,
+                final SSLContext sslContext, final boolean sslContextResolved) {
+            this.authenticationConfiguration = authenticationConfiguration;
+            this.sslContext = sslContext;
+            this.sslContextResolved = sslContextResolved;
+        }
+
+        AuthenticationConfiguration getAuthenticationConfiguration() {
+            return authenticationConfiguration;
+        }
+
+        /**
+         * @return The SSLContext or null if no SSLContext is available.
+         */
+        SSLContext getSSLContext() {
+            return sslContext;
+        }
+
+    }
+
+}
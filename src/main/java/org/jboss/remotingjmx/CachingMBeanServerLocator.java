@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServerConnection;
+
+import org.jboss.logging.Logger;
+
+/**
+ * An MBeanServerLocator that wraps another MBeanServerLocator and caches the MBeanServerConnections it locates keyed by the
+ * connection parameters.
+ *
+ * Entries expire once the configured time to live has elapsed and can also be invalidated explicitly, when the cache is full
+ * the least recently used entry is evicted. A null result from the wrapped locator is never cached.
+ */
+public class CachingMBeanServerLocator implements MBeanServerLocator {
+
+    private static final Logger log = Logger.getLogger(CachingMBeanServerLocator.class);
+
+    /**
+     * The key used to cache the result of getDefaultMBeanServer().
+     */
+    private static final Map<String, String> DEFAULT_KEY = null;
+
+    private final MBeanServerLocator delegate;
+    private final long timeToLiveNanos;
+    private final int maxEntries;
+    private final Map<Map<String, String>, CacheEntry> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Construct a new CachingMBeanServerLocator.
+     *
+     * @param delegate - The MBeanServerLocator to use to locate MBeanServerConnections not already cached.
+     * @param timeToLive - The time an entry remains valid after it was located, a value less than or equal to 0 means entries
+     *        do not expire.
+     * @param unit - The unit of timeToLive.
+     * @param maxEntries - The maximum number of entries to cache, a value less than or equal to 0 means the cache is
+     *        unbounded.
+     */
+    public CachingMBeanServerLocator(final MBeanServerLocator delegate, final long timeToLive, final TimeUnit unit,
+            final int maxEntries) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate can not be null");
+        }
+        this.delegate = delegate;
+        this.timeToLiveNanos = timeToLive > 0 ? unit.toNanos(timeToLive) : 0;
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<Map<String, String>, CacheEntry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Map<String, String>, CacheEntry> eldest) {
+                if (CachingMBeanServerLocator.this.maxEntries > 0 && size() > CachingMBeanServerLocator.this.maxEntries) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+
+        };
+    }
+
+    @Override
+    public MBeanServerConnection getDefaultMBeanServer() {
+        MBeanServerConnection cached = getCached(DEFAULT_KEY);
+        if (cached != null) {
+            return cached;
+        }
+
+        return cache(DEFAULT_KEY, delegate.getDefaultMBeanServer());
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServer(final Map<String, String> parameters) {
+        // Take a copy as the caller is free to modify the Map after the call.
+        Map<String, String> key = Collections.unmodifiableMap(new HashMap<String, String>(parameters));
+        MBeanServerConnection cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        return cache(key, delegate.getMBeanServer(key));
+    }
+
+    /*
+     * Invalidation
+     */
+
+    /**
+     * Remove the cached entry for the specified parameters, if any.
+     *
+     * @param parameters - The parameters of the entry to invalidate, null to invalidate the entry for the default
+     *        MBeanServerConnection.
+     */
+    public void invalidate(final Map<String, String> parameters) {
+        synchronized (cache) {
+            if (cache.remove(parameters) != null) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Remove all cached entries referencing the specified MBeanServerConnection, this allows an MBeanServerConnection that is
+     * no longer available to be removed regardless of the parameters used to locate it.
+     *
+     * @param mbeanServerConnection - The MBeanServerConnection to invalidate.
+     */
+    public void invalidate(final MBeanServerConnection mbeanServerConnection) {
+        synchronized (cache) {
+            Iterator<CacheEntry> it = cache.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().mbeanServerConnection == mbeanServerConnection) {
+                    it.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all cached entries.
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            evictionCount.addAndGet(cache.size());
+            cache.clear();
+        }
+    }
+
+    /*
+     * Metrics
+     */
+
+    /**
+     * @return The number of calls satisfied from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of calls that needed to call the wrapped MBeanServerLocator.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return The number of entries removed from the cache due to expiry, invalidation or the cache being full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return The number of entries currently cached, this may include entries that have expired but not yet been removed.
+     */
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private MBeanServerConnection getCached(final Map<String, String> key) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry != null) {
+                if (entry.isExpired()) {
+                    cache.remove(key);
+                    evictionCount.incrementAndGet();
+                } else {
+                    hitCount.incrementAndGet();
+                    return entry.mbeanServerConnection;
+                }
+            }
+        }
+        missCount.incrementAndGet();
+
+        return null;
+    }
+
+    private MBeanServerConnection cache(final Map<String, String> key, final MBeanServerConnection mbeanServerConnection) {
+        // The wrapped locator is called outside of the lock so a slow lookup does not block other connections, if two
+        // connections race to locate the same entry the last one to complete wins.
+        if (mbeanServerConnection != null) {
+            synchronized (cache) {
+                cache.put(key, new CacheEntry(mbeanServerConnection));
+            }
+            log.tracef("Cached MBeanServerConnection for parameters %s", key);
+        }
+
+        return mbeanServerConnection;
+    }
+
+    private class CacheEntry {
+
+        private final MBeanServerConnection mbeanServerConnection;
+        private final long created = System.nanoTime();
+
+        private CacheEntry(final MBeanServerConnection mbeanServerConnection) {
+            this.mbeanServerConnection = mbeanServerConnection;
+        }
+
+        private boolean isExpired() {
+            return timeToLiveNanos > 0 && System.nanoTime() - created >= timeToLiveNanos;
+        }
+
+    }
+
+}
@@ -53,6 +53,150 @@ public class Constants {
      */
     public static final String EXCLUDED_SASL_MECHANISMS = "org.jboss.remoting-jmx.excluded-sasl-mechanisms";
 
+    /**
+     * Property used to specify that client connections should share a single Remoting Endpoint instead of each connection
+     * creating it's own Endpoint, the shared Endpoint is closed once the last connection using it is closed.
+     *
+     * Connections only share an Endpoint if they also use the same worker thread configuration.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String SHARED_ENDPOINT = "org.jboss.remoting-jmx.shared-endpoint";
+
+    /**
+     * Property used to specify the number of I/O threads of the worker of the Remoting Endpoints created by clients.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String ENDPOINT_IO_THREADS = "org.jboss.remoting-jmx.endpoint.io-threads";
+
+    /**
+     * Property used to specify the number of task threads of the worker of the Remoting Endpoints created by clients.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String ENDPOINT_TASK_THREADS = "org.jboss.remoting-jmx.endpoint.task-threads";
+
+    /**
+     * Property used to specify the interval in seconds between the heartbeats sent by clients to detect a server that is no
+     * longer responding, a value of 0 disables the heartbeat.  The heartbeat requires version 0x03 of the protocol.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String HEARTBEAT_INTERVAL = "org.jboss.remoting-jmx.heartbeat.interval";
+
+    /**
+     * Property used to specify the number of consecutive heartbeats that can be missed before the connection is considered to
+     * have failed, once failed all pending requests are failed and the connection is closed.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String HEARTBEAT_MAX_MISSED = "org.jboss.remoting-jmx.heartbeat.max-missed";
+
+    /**
+     * Property used to enable fetching notifications instead of the server sending them as they occur, whilst enabled the
+     * client repeatedly requests the notifications queued by the server and the server only sends notifications in response
+     * to these requests.  Fetching notifications requires version 0x03 of the protocol.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String NOTIFICATION_FETCH = "org.jboss.remoting-jmx.notification.fetch";
+
+    /**
+     * Property used to specify the maximum number of notifications returned by a single fetch.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String NOTIFICATION_FETCH_SIZE = "org.jboss.remoting-jmx.notification.fetch.size";
+
+    /**
+     * Property used to specify the time in milliseconds the server waits for a notification before responding to a fetch with no
+     * notifications, this is limited to half of the request timeout.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String NOTIFICATION_FETCH_TIMEOUT = "org.jboss.remoting-jmx.notification.fetch.timeout";
+
+    /**
+     * Property used to enable the automatic reconnection of a connector once its connection fails, whilst enabled the
+     * MBeanServerConnection returned by the connector remains usable after a reconnection and the notification listeners
+     * registered using it are registered again.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String RECONNECT = "org.jboss.remoting-jmx.reconnect";
+
+    /**
+     * Property used to specify the delay in milliseconds before the first reconnection attempt, the delay doubles after each
+     * failed attempt.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String RECONNECT_INITIAL_DELAY = "org.jboss.remoting-jmx.reconnect.initial-delay";
+
+    /**
+     * Property used to specify the maximum delay in milliseconds between reconnection attempts.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String RECONNECT_MAX_DELAY = "org.jboss.remoting-jmx.reconnect.max-delay";
+
+    /**
+     * Property used to specify the maximum number of reconnection attempts before the connection is reported as failed, a value
+     * of 0 allows unlimited attempts.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String RECONNECT_MAX_ATTEMPTS = "org.jboss.remoting-jmx.reconnect.max-attempts";
+
+    /**
+     * Property used to specify the number of channels opened over the Remoting connection, requests are spread across the
+     * channels so that more than one request can be read and written at a time.  Notifications are always received using the
+     * first channel.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String CHANNEL_POOL_SIZE = "org.jboss.remoting-jmx.channel-pool-size";
+
+    /**
+     * Property used to enable gateway mode on a DelegatingRemotingConnectorServer, where the MBeanServerLocator returns a
+     * connection established using remoting-jmx the frames received from the client are relayed unchanged to a channel opened
+     * to the same backend server instead of being unmarshalled and the request repeated using the connection.
+     *
+     * Can be set as either a System property or within the environment map with the environment map taking precedence.
+     */
+    public static final String GATEWAY = "org.jboss.remoting-jmx.gateway";
+
+    /**
+     * System property used to specify the maximum time in milliseconds the server delays a burst of notifications whilst
+     * responses are being written on the same connection, this prevents a burst of notifications delaying the responses to
+     * requests.  Defaults to 20 milliseconds, a value of 0 disables the priority given to responses.
+     *
+     * Responses are only given priority for connections using version 0x03 of the protocol or later.
+     */
+    public static final String NOTIFICATION_MAX_YIELD = "org.jboss.remoting-jmx.notification.max-yield";
+
+    /**
+     * Property used to allow the server to interrupt the thread processing a request once the client has cancelled it, by
+     * default only requests that have not started being processed are discarded and requests in progress run to completion.
+     * Interrupting the thread can leave an MBean that does not expect to be interrupted part way through a change.
+     *
+     * Can be set as either a System property or within the environment map of the connector server with the environment map
+     * taking precedence.
+     */
+    public static final String CANCELLATION_INTERRUPT = "org.jboss.remoting-jmx.cancellation.interrupt";
+
+    /**
+     * Property used to set how many marshalled notifications the server caches so a notification sent to many connections is
+     * only marshalled once, defaults to 64.
+     *
+     * Notifications are matched by identity so a notification, including the contents of its user data, must not be modified
+     * in place once it has been sent, setting this property to 0 disables the cache for sources that do modify them.
+     *
+     * This is read as a System property.
+     */
+    public static final String NOTIFICATION_MARSHALLED_CACHE_SIZE = "org.jboss.remoting-jmx.notification.marshalled-cache-size";
+
 
     static final String PROTOCOL_REMOTE = "remote";
     static final String PROTOCOL_REMOTE_TLS = "remote+tls";
@@ -19,6 +19,7 @@
 package org.jboss.remotingjmx;
 
 import static org.jboss.remotingjmx.Constants.CHANNEL_NAME;
+import static org.jboss.remotingjmx.Constants.GATEWAY;
 import static org.jboss.remotingjmx.Constants.JMX;
 import static org.jboss.remotingjmx.Constants.JMX_BYTES;
 import static org.jboss.remotingjmx.Constants.SNAPSHOT;
@@ -92,7 +93,7 @@ public class DelegatingRemotingConnectorServer {
     public DelegatingRemotingConnectorServer(final MBeanServerLocator mbeanServerLocator, final Endpoint endpoint,
             final Executor executor, final Map<String, ?> environment,
             final ServerMessageInterceptorFactory serverMessageInterceptorFactory) {
-        this.mbeanServerManager = new DelegatingMBeanServerManager(mbeanServerLocator);
+        this.mbeanServerManager = new DelegatingMBeanServerManager(mbeanServerLocator, environment);
         this.endpoint = endpoint;
         this.executor = executor;
         versions = new Versions(environment);
@@ -230,9 +231,13 @@ public class DelegatingRemotingConnectorServer {
     private class DelegatingMBeanServerManager implements MBeanServerManager {
 
         private final MBeanServerLocator mbeanServerLocator;
+        private final Map<String, ?> environment;
+        private final boolean gateway;
 
-        public DelegatingMBeanServerManager(final MBeanServerLocator mbeanServerLocator) {
+        public DelegatingMBeanServerManager(final MBeanServerLocator mbeanServerLocator, final Map<String, ?> environment) {
             this.mbeanServerLocator = mbeanServerLocator;
+            this.environment = environment;
+            this.gateway = isGateway(environment);
         }
 
         public WrappedMBeanServerConnection getDefaultMBeanServer() {
@@ -246,6 +251,9 @@ public class DelegatingRemotingConnectorServer {
             if (mbeanServerConnection instanceof WrappedMBeanServerConnection) {
                 return (WrappedMBeanServerConnection) mbeanServerConnection;
             }
+            if (gateway && mbeanServerConnection instanceof RemotingMBeanServerConnection) {
+                return new GatewayMBeanServerConnection((RemotingMBeanServerConnection) mbeanServerConnection, environment);
+            }
             return new WrappedMBeanServerConnection() {
 
                 @Override
@@ -268,6 +276,56 @@ public class DelegatingRemotingConnectorServer {
 
     }
 
+    private static boolean isGateway(final Map<String, ?> environment) {
+        Object value = environment == null ? null : environment.get(GATEWAY);
+        if (value == null) {
+            return Boolean.getBoolean(GATEWAY);
+        }
+
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+
+    /**
+     * The WrappedMBeanServerConnection for a backend connection established using remoting-jmx, clients are relayed using their
+     * own channel to the same backend server.
+     */
+    private static class GatewayMBeanServerConnection implements RelayingMBeanServerConnection {
+
+        private final RemotingMBeanServerConnection backend;
+        private final Map<String, ?> environment;
+
+        private GatewayMBeanServerConnection(final RemotingMBeanServerConnection backend, final Map<String, ?> environment) {
+            this.backend = backend;
+            this.environment = environment;
+        }
+
+        @Override
+        public MBeanServerConnection getMBeanServerConnection() {
+            return backend;
+        }
+
+        @Override
+        public Channel openRelayChannel(final byte version, final int requestTimeout) throws IOException {
+            JMXServiceURL serviceURL = backend.getServiceURL();
+            if (serviceURL == null) {
+                log.debug("Backend connection can not be relayed to, no JMXServiceURL available.");
+                return null;
+            }
+
+            return VersionedConectionFactory.openRelayChannel(backend.getConnection(), serviceURL, environment, version,
+                    requestTimeout);
+        }
+
+        @Override
+        public void connectionOpened(VersionedProxy proxy) {
+        }
+
+        @Override
+        public void connectionClosed(VersionedProxy proxy) {
+        }
+
+    }
+
     /*
      * Handlers and Receivers
      */
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.ENDPOINT_IO_THREADS;
+import static org.jboss.remotingjmx.Constants.ENDPOINT_TASK_THREADS;
+import static org.jboss.remotingjmx.Constants.SHARED_ENDPOINT;
+import static org.jboss.remotingjmx.Util.getInteger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.logging.Logger;
+import org.jboss.remoting3.Endpoint;
+import org.jboss.remoting3.EndpointBuilder;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+/**
+ * Factory for the Remoting Endpoints used by the RemotingConnector.
+ *
+ * By default each RemotingConnector uses it's own Endpoint, where shared endpoints are enabled a single Endpoint is shared by
+ * all RemotingConnectors using the same worker configuration and is closed once the last RemotingConnector using it is closed.
+ */
+class EndpointFactory {
+
+    private static final Logger log = Logger.getLogger(EndpointFactory.class);
+
+    private static final String ENDPOINT_NAME = "endpoint";
+
+    private static final Map<WorkerConfiguration, SharedEndpointReference> sharedEndpoints = new HashMap<WorkerConfiguration, SharedEndpointReference>();
+
+    // Prevent instantiation.
+    private EndpointFactory() {
+    }
+
+    /**
+     * Obtain a reference to the Endpoint to use for a new connection, the reference must be closed once the connection is
+     * closed.
+     *
+     * @param environment - The environment of the connection.
+     * @return The reference to the Endpoint to use.
+     * @throws IOException - If there is a failure creating the Endpoint.
+     */
+    static EndpointReference getEndpoint(final Map<String, ?> environment) throws IOException {
+        final WorkerConfiguration configuration = new WorkerConfiguration(getIntegerValue(ENDPOINT_IO_THREADS, environment),
+                getIntegerValue(ENDPOINT_TASK_THREADS, environment));
+
+        if (isSharedEndpoint(environment) == false) {
+            return new DedicatedEndpointReference(configuration.createEndpoint());
+        }
+
+        synchronized (sharedEndpoints) {
+            SharedEndpointReference reference = sharedEndpoints.get(configuration);
+            if (reference == null) {
+                reference = new SharedEndpointReference(configuration, configuration.createEndpoint());
+                sharedEndpoints.put(configuration, reference);
+                log.debugf("Created shared endpoint for %s", configuration);
+            }
+            reference.referenceCount++;
+
+            return reference;
+        }
+    }
+
+    private static boolean isSharedEndpoint(final Map<String, ?> environment) {
+        Object value = environment == null ? null : environment.get(SHARED_ENDPOINT);
+        if (value == null) {
+            return Boolean.getBoolean(SHARED_ENDPOINT);
+        }
+
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+
+    private static Integer getIntegerValue(final String property, final Map<String, ?> environment) {
+        Integer value = environment == null ? null : getInteger(environment.get(property));
+        if (value == null) {
+            value = Integer.getInteger(property);
+        }
+
+        return value;
+    }
+
+    /**
+     * A reference to the Endpoint used by a single RemotingConnector.
+     */
+    interface EndpointReference extends Closeable {
+
+        Endpoint getEndpoint();
+
+    }
+
+    private static class DedicatedEndpointReference implements EndpointReference {
+
+        private final Endpoint endpoint;
+
+        private DedicatedEndpointReference(final Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void close() throws IOException {
+            endpoint.close();
+        }
+
+    }
+
+    private static class SharedEndpointReference implements EndpointReference {
+
+        private final WorkerConfiguration configuration;
+        private final Endpoint endpoint;
+        // Guarded by sharedEndpoints
+        private int referenceCount = 0;
+
+        private SharedEndpointReference(final WorkerConfiguration configuration, final Endpoint endpoint) {
+            this.configuration = configuration;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (sharedEndpoints) {
+                if (referenceCount == 0 || --referenceCount > 0) {
+                    return;
+                }
+                sharedEndpoints.remove(configuration);
+            }
+            log.debugf("Closing shared endpoint for %s", configuration);
+            endpoint.close();
+        }
+
+    }
+
+    private static class WorkerConfiguration {
+
+        private final Integer ioThreads;
+        private final Integer taskThreads;
+
+        private WorkerConfiguration(final Integer ioThreads, final Integer taskThreads) {
+            this.ioThreads = ioThreads;
+            this.taskThreads = taskThreads;
+        }
+
+        private Endpoint createEndpoint() throws IOException {
+            EndpointBuilder builder = Endpoint.builder().setEndpointName(ENDPOINT_NAME);
+            if (ioThreads != null || taskThreads != null) {
+                XnioWorker.Builder workerBuilder = builder.buildXnioWorker(Xnio.getInstance());
+                if (ioThreads != null) {
+                    workerBuilder.setWorkerIoThreads(ioThreads);
+                }
+                if (taskThreads != null) {
+                    workerBuilder.setCoreWorkerPoolSize(taskThreads);
+                    workerBuilder.setMaxWorkerPoolSize(taskThreads);
+                }
+            }
+
+            return builder.build();
+        }
+
+        @Override
+        public int hashCode() {
+            return (ioThreads == null ? 0 : ioThreads.hashCode()) * 31 + (taskThreads == null ? 0 : taskThreads.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof WorkerConfiguration == false) {
+                return false;
+            }
+            WorkerConfiguration other = (WorkerConfiguration) obj;
+
+            return (ioThreads == null ? other.ioThreads == null : ioThreads.equals(other.ioThreads))
+                    && (taskThreads == null ? other.taskThreads == null : taskThreads.equals(other.taskThreads));
+        }
+
+        @Override
+        public String toString() {
+            return "WorkerConfiguration [ioThreads=" + ioThreads + ", taskThreads=" + taskThreads + "]";
+        }
+
+    }
+
+}
@@ -26,7 +26,8 @@ import javax.management.MBeanServerConnection;
  * The interface to be implemented for providing access to the MBeanServers.
  *
  * The result of the method calls may be cached, this is especially true if the returned MBeanServerConnection is actually an
- * MBeanServer.
+ * MBeanServer, where locating an MBeanServerConnection is expensive the locator can be wrapped with a
+ * {@link CachingMBeanServerLocator}.
  *
  * @author <a href="mailto:darran.lofthouse@jboss.com">Darran Lofthouse</a>
  */
@@ -0,0 +1,40 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import java.io.IOException;
+
+/**
+ * Implemented by a {@link VersionedConnection} that can take over the notification listeners registered using a previous
+ * connection once the connector has reconnected.
+ */
+public interface NotificationListenerReplay {
+
+    /**
+     * Register with the server all of the notification listeners that were registered using the previous connection, once
+     * replayed the listeners receive notifications from this connection.
+     *
+     * @param previous - The connection that has been replaced by this connection.
+     * @return true if the registrations of the previous connection were replayed, false if the previous connection is not
+     *         compatible with this connection.
+     * @throws IOException - If the registrations can not be sent to the server.
+     */
+    boolean replayNotificationListeners(VersionedConnection previous) throws IOException;
+
+}
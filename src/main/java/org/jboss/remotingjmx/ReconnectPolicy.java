@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.RECONNECT;
+import static org.jboss.remotingjmx.Constants.RECONNECT_INITIAL_DELAY;
+import static org.jboss.remotingjmx.Constants.RECONNECT_MAX_ATTEMPTS;
+import static org.jboss.remotingjmx.Constants.RECONNECT_MAX_DELAY;
+import static org.jboss.remotingjmx.Util.getInteger;
+
+import java.util.Map;
+
+/**
+ * The configuration of the automatic reconnection of a connector.
+ */
+class ReconnectPolicy {
+
+    private static final int DEFAULT_INITIAL_DELAY = 1000;
+    private static final int DEFAULT_MAX_DELAY = 30000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 0;
+
+    private final long initialDelay;
+    private final long maxDelay;
+    private final int maxAttempts;
+
+    private ReconnectPolicy(final long initialDelay, final long maxDelay, final int maxAttempts) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = Math.max(initialDelay, maxDelay);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Create the ReconnectPolicy defined by the environment.
+     *
+     * @return The ReconnectPolicy or null if reconnection is not enabled.
+     */
+    static ReconnectPolicy create(final Map<String, ?> environment) {
+        Object value = environment == null ? null : environment.get(RECONNECT);
+        boolean enabled = value == null ? Boolean.getBoolean(RECONNECT) : value instanceof Boolean ? (Boolean) value : Boolean
+                .parseBoolean(value.toString());
+        if (enabled == false) {
+            return null;
+        }
+
+        return new ReconnectPolicy(Math.max(getIntegerValue(RECONNECT_INITIAL_DELAY, environment, DEFAULT_INITIAL_DELAY), 1),
+                getIntegerValue(RECONNECT_MAX_DELAY, environment, DEFAULT_MAX_DELAY), getIntegerValue(RECONNECT_MAX_ATTEMPTS,
+                        environment, DEFAULT_MAX_ATTEMPTS));
+    }
+
+    private static int getIntegerValue(final String property, final Map<String, ?> environment, final int defaultValue) {
+        Integer value = environment == null ? null : getInteger(environment.get(property));
+        if (value == null) {
+            value = Integer.getInteger(property, defaultValue);
+        }
+
+        return value;
+    }
+
+    /**
+     * @param attempt - The reconnection attempt about to be made, starting at 1.
+     * @return true if the attempt is permitted.
+     */
+    boolean isAttemptPermitted(final int attempt) {
+        return maxAttempts <= 0 || attempt <= maxAttempts;
+    }
+
+    /**
+     * @param attempt - The reconnection attempt about to be made, starting at 1.
+     * @return The delay in milliseconds before making the attempt.
+     */
+    long getDelay(final int attempt) {
+        long delay = initialDelay;
+        for (int i = 1; i < attempt && delay < maxDelay; i++) {
+            delay = delay * 2;
+        }
+
+        return Math.min(delay, maxDelay);
+    }
+
+}
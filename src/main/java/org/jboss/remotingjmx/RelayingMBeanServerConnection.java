@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import java.io.IOException;
+
+import org.jboss.remoting3.Channel;
+
+/**
+ * A WrappedMBeanServerConnection for an MBeanServer reached using remoting-jmx, used by a gateway to relay the messages of a
+ * client to the backend server instead of unmarshalling each request.
+ */
+public interface RelayingMBeanServerConnection extends WrappedMBeanServerConnection {
+
+    /**
+     * Open a channel to the backend server, select the same version as the client and call begin.
+     *
+     * Correlation IDs and notification listener IDs are only unique within a channel so as each client is relayed using its own
+     * channel the messages can be relayed in both directions without being modified.
+     *
+     * @param version - The version selected by the client.
+     * @param requestTimeout - The request timeout sent by the client, 0 if not sent.
+     * @return The channel to relay the messages of the client to or null if the client can not be relayed.
+     * @throws IOException - If the channel could not be opened.
+     */
+    Channel openRelayChannel(byte version, int requestTimeout) throws IOException;
+
+}
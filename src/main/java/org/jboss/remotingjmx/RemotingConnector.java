@@ -18,17 +18,20 @@
 
 package org.jboss.remotingjmx;
 
-import static java.security.AccessController.doPrivileged;
-import static org.jboss.remotingjmx.Constants.CHANNEL_NAME;
 import static org.jboss.remotingjmx.Constants.EXCLUDED_SASL_MECHANISMS;
 import static org.jboss.remotingjmx.Constants.JBOSS_LOCAL_USER;
 import static org.jboss.remotingjmx.Util.convert;
+import static org.jboss.remotingjmx.Util.getServiceName;
 import static org.jboss.remotingjmx.Util.getTimeoutValue;
 import static org.xnio.Options.SASL_POLICY_NOANONYMOUS;
 import static org.xnio.Options.SASL_POLICY_NOPLAINTEXT;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
@@ -40,10 +43,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.management.ListenerNotFoundException;
 import javax.management.MBeanServerConnection;
+import javax.management.NotificationBroadcasterSupport;
 import javax.management.NotificationFilter;
 import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXServiceURL;
 import javax.net.ssl.SSLContext;
@@ -52,14 +60,13 @@ import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.logging.Logger;
 import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.Endpoint;
 import org.jboss.remotingjmx.Util.Timeout;
 import org.wildfly.client.config.ConfigXMLParseException;
 import org.wildfly.security.auth.client.AuthenticationConfiguration;
 import org.wildfly.security.auth.client.AuthenticationContext;
-import org.wildfly.security.auth.client.AuthenticationContextConfigurationClient;
-import org.wildfly.security.auth.client.ElytronXmlParser;
 import org.wildfly.security.auth.client.MatchRule;
 import org.xnio.IoFuture;
 import org.xnio.OptionMap;
@@ -74,17 +81,28 @@ import org.xnio.Sequence;
 class RemotingConnector implements JMXConnector {
 
     private static final Logger log = Logger.getLogger(RemotingConnectorServer.class);
-    private static final AuthenticationContextConfigurationClient AUTH_CONFIGURATION_CLIENT = doPrivileged(AuthenticationContextConfigurationClient.ACTION);
 
     private final JMXServiceURL serviceUrl;
     private final Map<String, ?> environment;
 
-    private Endpoint endpoint;
+    private EndpointFactory.EndpointReference endpointReference;
     private Connection connection;
-    private ConnectorState state = ConnectorState.UNUSED;
+    private volatile ConnectorState state = ConnectorState.UNUSED;
     private Channel channel;
-    private VersionedConnection versionedConnection;
-    private ShutDownHook shutDownHook;
+    private volatile VersionedConnection versionedConnection;
+    private volatile String connectionId;
+    private ShutdownRegistry.Registration shutdownRegistration;
+
+    private final NotificationBroadcasterSupport connectionNotifier = new NotificationBroadcasterSupport();
+    private final AtomicLong notificationSequence = new AtomicLong();
+
+    private volatile ReconnectPolicy reconnectPolicy;
+    private Map<String, ?> reconnectEnvironment;
+    private Map<String, ?> connectEnvironment;
+    // Captured by the thread calling connect, reconnecting happens on a thread of its own.
+    private volatile AuthenticationContext authenticationContext;
+    private final AtomicBoolean reconnecting = new AtomicBoolean(false);
+    private MBeanServerConnection reconnectingConnection;
 
     RemotingConnector(JMXServiceURL serviceURL, Map<String, ?> environment) throws IOException {
         this.serviceUrl = serviceURL;
@@ -151,33 +169,191 @@ class RemotingConnector implements JMXConnector {
         }
 
         Connection connection = internalRemotingConnect(combinedEnvironment);
+        channel = openChannel(connection, combinedEnvironment);
 
-        String serviceName = serviceUrl.getURLPath();
-        if (serviceName.startsWith("/") || serviceName.startsWith(";")) {
-            serviceName = serviceName.substring(1);
-            if (serviceName.contains("?")) {
-                // Drop any query parameters when identifying the service name.
-                serviceName = serviceName.substring(0, serviceName.indexOf('?'));
-            }
+        versionedConnection = createVersionedConnection(connection, channel, env, combinedEnvironment);
+        connectionId = versionedConnection.getConnectionId();
+        state = ConnectorState.OPEN;
+        shutdownRegistration = ShutdownRegistry.register(this);
+
+        reconnectPolicy = ReconnectPolicy.create(combinedEnvironment);
+        if (reconnectPolicy != null && combinedEnvironment.containsKey(Connection.class.getName())) {
+            log.debug("Reconnection is not possible using a Connection provided in the environment.");
+            reconnectPolicy = null;
         }
-        if (serviceName.length() == 0) {
-            serviceName = CHANNEL_NAME;
+        if (reconnectPolicy != null) {
+            reconnectEnvironment = combinedEnvironment;
+            connectEnvironment = env;
         }
 
+        monitorChannels(channel, versionedConnection);
+        sendConnectionNotification(JMXConnectionNotification.OPENED, connectionId, "Connection opened", null);
+    }
+
+    private Channel openChannel(final Connection connection, final Map<String, ?> env) throws IOException {
         // Now open the channel
-        final IoFuture<Channel> futureChannel = connection.openChannel(serviceName, OptionMap.EMPTY);
-        IoFuture.Status result = futureChannel.await(getTimeoutValue(Timeout.CHANNEL, combinedEnvironment), TimeUnit.SECONDS);
+        final IoFuture<Channel> futureChannel = connection.openChannel(getServiceName(serviceUrl), OptionMap.EMPTY);
+        IoFuture.Status result = futureChannel.await(getTimeoutValue(Timeout.CHANNEL, env), TimeUnit.SECONDS);
         if (result == IoFuture.Status.DONE) {
-            channel = futureChannel.get();
+            return futureChannel.get();
         } else if (result == IoFuture.Status.FAILED) {
             throw futureChannel.getException();
         } else {
             throw new IOException("Operation failed with status " + result);
         }
+    }
 
-        versionedConnection = VersionedConectionFactory.createVersionedConnection(channel, env, serviceUrl);
-        state = ConnectorState.OPEN;
-        Runtime.getRuntime().addShutdownHook((shutDownHook = new ShutDownHook()));
+    /**
+     * Negotiate the VersionedConnection for the channel, where a channel pool has been configured the additional channels are
+     * opened and negotiated and the requests are spread across all of the channels.
+     */
+    private VersionedConnection createVersionedConnection(final Connection connection, final Channel channel,
+            final Map<String, ?> env, final Map<String, ?> combinedEnvironment) throws IOException {
+        VersionedConnection primary = VersionedConectionFactory.createVersionedConnection(channel, env, serviceUrl);
+        int poolSize = StripedConnection.getPoolSize(combinedEnvironment);
+        if (poolSize == 1) {
+            return primary;
+        }
+
+        VersionedConnection[] connections = new VersionedConnection[poolSize];
+        connections[0] = primary;
+        List<Channel> secondaryChannels = new ArrayList<Channel>(poolSize - 1);
+        try {
+            for (int i = 1; i < poolSize; i++) {
+                Channel secondaryChannel = openChannel(connection, combinedEnvironment);
+                secondaryChannels.add(secondaryChannel);
+                connections[i] = VersionedConectionFactory.createVersionedConnection(secondaryChannel, env, serviceUrl);
+            }
+        } catch (IOException e) {
+            for (VersionedConnection current : connections) {
+                safeClose(current);
+            }
+            for (Channel current : secondaryChannels) {
+                safeClose(current);
+            }
+            throw e;
+        }
+        log.debugf("Connection '%s' using a pool of %d channels", primary.getConnectionId(), poolSize);
+
+        return new StripedConnection(connections, secondaryChannels);
+    }
+
+    /**
+     * Monitor the channel and any additional pooled channels so a failure of the connection is detected.
+     */
+    private void monitorChannels(final Channel channel, final VersionedConnection versionedConnection) {
+        final String channelConnectionId = versionedConnection.getConnectionId();
+        monitorChannel(channel, channelConnectionId);
+        if (versionedConnection instanceof StripedConnection) {
+            for (Channel current : ((StripedConnection) versionedConnection).getSecondaryChannels()) {
+                monitorChannel(current, channelConnectionId);
+            }
+        }
+    }
+
+    private void monitorChannel(final Channel channel, final String channelConnectionId) {
+        channel.addCloseHandler(new CloseHandler<Channel>() {
+
+            @Override
+            public void handleClose(Channel closed, IOException exception) {
+                // If the connector is still open the channel was not closed by this connector, if the connection has
+                // already been replaced the channel belongs to the connection closed by the reconnect.
+                if (state == ConnectorState.OPEN && channelConnectionId.equals(connectionId)) {
+                    log.debugf(exception, "Connection '%s' failed", channelConnectionId);
+                    if (reconnectPolicy != null) {
+                        startReconnect();
+                    } else {
+                        sendConnectionNotification(JMXConnectionNotification.FAILED, channelConnectionId,
+                                "Connection failed", exception);
+                    }
+                }
+            }
+        });
+    }
+
+    private void startReconnect() {
+        if (reconnecting.compareAndSet(false, true)) {
+            Thread reconnectThread = new Thread(new Reconnector(), "Remoting JMX Reconnect " + serviceUrl);
+            reconnectThread.setDaemon(true);
+            reconnectThread.start();
+        }
+    }
+
+    /**
+     * Replace the failed connection with a new connection and register the notification listeners of the failed connection
+     * using the new connection.
+     *
+     * @return true if the connection was replaced, false if the connector has been closed.
+     */
+    private boolean reconnect() throws IOException {
+        final VersionedConnection previous;
+        final Channel previousChannel;
+        final Connection previousConnection;
+        final EndpointFactory.EndpointReference previousEndpointReference;
+        final AuthenticationContext context;
+        synchronized (this) {
+            if (state != ConnectorState.OPEN) {
+                return false;
+            }
+
+            context = authenticationContext;
+
+            previous = versionedConnection;
+            previousChannel = channel;
+            this.channel = null;
+            previousConnection = connection;
+            this.connection = null;
+            previousEndpointReference = endpointReference;
+            this.endpointReference = null;
+        }
+        safeClose(previousChannel);
+        safeClose(previousConnection);
+        safeClose(previousEndpointReference);
+
+        // Connecting and negotiating can take as long as the configured timeouts so must not hold the lock.
+        EndpointFactory.EndpointReference newEndpointReference = EndpointFactory.getEndpoint(reconnectEnvironment);
+        Connection newConnection = null;
+        Channel newChannel = null;
+        VersionedConnection replacement = null;
+        try {
+            newConnection = remotingConnect(newEndpointReference.getEndpoint(), reconnectEnvironment, context);
+            newChannel = openChannel(newConnection, reconnectEnvironment);
+            replacement = createVersionedConnection(newConnection, newChannel, connectEnvironment, reconnectEnvironment);
+            if (replacement instanceof NotificationListenerReplay == false
+                    || ((NotificationListenerReplay) replacement).replayNotificationListeners(previous) == false) {
+                log.debug("Notification listeners of the previous connection can not be replayed.");
+            }
+        } catch (IOException e) {
+            safeClose(replacement);
+            safeClose(newChannel);
+            safeClose(newConnection);
+            safeClose(newEndpointReference);
+            throw e;
+        }
+
+        synchronized (this) {
+            // The connector may have been closed whilst the replacement was being established.
+            if (state == ConnectorState.OPEN) {
+                endpointReference = newEndpointReference;
+                connection = newConnection;
+                channel = newChannel;
+                versionedConnection = replacement;
+                connectionId = replacement.getConnectionId();
+                monitorChannels(newChannel, replacement);
+                newChannel = null;
+            }
+        }
+
+        if (newChannel != null) {
+            safeClose(replacement);
+            safeClose(newChannel);
+            safeClose(newConnection);
+            safeClose(newEndpointReference);
+            return false;
+        }
+
+        safeClose(previous);
+        return true;
     }
 
     /**
@@ -198,13 +374,18 @@ class RemotingConnector implements JMXConnector {
             return (Connection) env.get(Connection.class.getName());
         }
 
-        endpoint = Endpoint.builder().setEndpointName("endpoint").build();
-
-        Set<String> disabledMechanisms = new HashSet<String>();
+        authenticationContext = captureAuthenticationContext(env);
+        endpointReference = EndpointFactory.getEndpoint(env);
+        connection = remotingConnect(endpointReference.getEndpoint(), env, authenticationContext);
 
-        final URI uri = convert(serviceUrl);
+        return connection;
+    }
 
-        AuthenticationContext captured;
+    /**
+     * Obtain the AuthenticationContext to connect with, either the context of the calling thread or the context defined by the
+     * authentication configuration in the environment.
+     */
+    private AuthenticationContext captureAuthenticationContext(final Map<String, ?> env) throws IOException {
         // Determine if an authentication configuration was defined in the environment
         final Object authConfig = env.get("wildfly.config.url");
         URI authConfigUri = null;
@@ -216,22 +397,29 @@ class RemotingConnector implements JMXConnector {
             }
         }
         if (authConfigUri == null) {
-            captured = AuthenticationContext.captureCurrent();
-        } else {
-            try {
-                captured = ElytronXmlParser.parseAuthenticationClientConfiguration(authConfigUri).create();
-            } catch (GeneralSecurityException | ConfigXMLParseException e) {
-                throw new IOException("Failed to parse authentication configuration " + authConfig, e);
-            }
+            return AuthenticationContext.captureCurrent();
         }
-        AuthenticationConfiguration mergedConfiguration = AUTH_CONFIGURATION_CLIENT.getAuthenticationConfiguration(uri, captured);
-
-        SSLContext tempContext = null;
         try {
-            tempContext = AUTH_CONFIGURATION_CLIENT.getSSLContext(uri, captured);
-        } catch (GeneralSecurityException e) {
-            log.trace("No SSLContext available", e);
+            return AuthenticationCache.getAuthenticationContext(authConfigUri);
+        } catch (GeneralSecurityException | ConfigXMLParseException e) {
+            throw new IOException("Failed to parse authentication configuration " + authConfig, e);
         }
+    }
+
+    /**
+     * Establish a new connection using the supplied endpoint, unlike {@link #internalRemotingConnect(Map)} the fields of
+     * this RemotingConnector are not updated.
+     */
+    private Connection remotingConnect(final Endpoint endpoint, final Map<String, ?> env,
+            final AuthenticationContext captured) throws IOException {
+        Set<String> disabledMechanisms = new HashSet<String>();
+
+        final URI uri = convert(serviceUrl);
+
+        AuthenticationCache.ResolvedConfiguration resolved = AuthenticationCache.getResolvedConfiguration(uri, captured);
+        AuthenticationConfiguration mergedConfiguration = resolved.getAuthenticationConfiguration();
+
+        final SSLContext sslContext = resolved.getSSLContext();
 
         // The credentials.
         CallbackHandler handler;
@@ -260,20 +448,17 @@ class RemotingConnector implements JMXConnector {
 
         // open a connection
         AuthenticationContext context = AuthenticationContext.empty().with(MatchRule.ALL, mergedConfiguration);
-        final SSLContext sslContext = tempContext;
         context = sslContext != null ? context.withSsl(MatchRule.ALL, () -> sslContext) : context;
         final IoFuture<Connection> futureConnection = endpoint.connect(convert(serviceUrl), getOptionMap(disabledMechanisms), context);
         IoFuture.Status result = futureConnection.await(getTimeoutValue(Timeout.CONNECTION, env), TimeUnit.SECONDS);
 
         if (result == IoFuture.Status.DONE) {
-            connection = futureConnection.get();
+            return futureConnection.get();
         } else if (result == IoFuture.Status.FAILED) {
             throw futureConnection.getException();
         } else {
             throw new IOException("Operation failed with status " + result);
         }
-
-        return connection;
     }
 
     private OptionMap getOptionMap(Set<String> disabledMechanisms) {
@@ -313,11 +498,40 @@ class RemotingConnector implements JMXConnector {
         log.trace("getMBeanServerConnection(Subject)");
         verifyConnected();
 
+        if (delegationSubject == null && reconnectPolicy != null) {
+            return getReconnectingConnection();
+        }
+
         return versionedConnection.getMBeanServerConnection(delegationSubject);
     }
 
+    /**
+     * Obtain the MBeanServerConnection that delegates to the current connection so it remains usable after a reconnection.
+     */
+    private synchronized MBeanServerConnection getReconnectingConnection() {
+        if (reconnectingConnection == null) {
+            reconnectingConnection = (MBeanServerConnection) Proxy.newProxyInstance(
+                    RemotingMBeanServerConnection.class.getClassLoader(),
+                    new Class<?>[] { RemotingMBeanServerConnection.class }, new ReconnectingInvocationHandler());
+        }
+
+        return reconnectingConnection;
+    }
+
     public synchronized void close() throws IOException {
         log.trace("close()");
+        if (internalClose()) {
+            sendConnectionNotification(JMXConnectionNotification.CLOSED, connectionId, "Connection closed", null);
+        }
+    }
+
+    /**
+     * Release the resources of this connector, once open the connector is moved to the closed state.
+     *
+     * @return true if the connector was open.
+     */
+    private synchronized boolean internalClose() {
+        boolean wasOpen = false;
         switch (state) {
             case UNUSED:
                 /*
@@ -326,15 +540,16 @@ class RemotingConnector implements JMXConnector {
                  */
                 break;
             case CLOSED:
-                return;
+                return false;
             case OPEN:
                 state = ConnectorState.CLOSED;
+                wasOpen = true;
         }
 
-        final ShutDownHook shutDownHook;
-        if ((shutDownHook = this.shutDownHook) != null) {
-            Runtime.getRuntime().removeShutdownHook(shutDownHook);
-            this.shutDownHook = null;
+        final ShutdownRegistry.Registration shutdownRegistration;
+        if ((shutdownRegistration = this.shutdownRegistration) != null) {
+            shutdownRegistration.remove();
+            this.shutdownRegistration = null;
         }
 
         safeClose(versionedConnection);
@@ -343,8 +558,17 @@ class RemotingConnector implements JMXConnector {
         this.channel = null;
         safeClose(connection);
         this.connection = null;
-        safeClose(endpoint);
-        this.endpoint = null;
+        safeClose(endpointReference);
+        this.endpointReference = null;
+        this.authenticationContext = null;
+
+        return wasOpen;
+    }
+
+    private void sendConnectionNotification(final String type, final String connectionId, final String message,
+            final Object userData) {
+        connectionNotifier.sendNotification(new JMXConnectionNotification(type, this, connectionId,
+                notificationSequence.incrementAndGet(), message, userData));
     }
 
     private void safeClose(final Channel channel) {
@@ -368,15 +592,18 @@ class RemotingConnector implements JMXConnector {
 
     public void addConnectionNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
         log.trace("addConnectionNotificationListener()");
+        connectionNotifier.addNotificationListener(listener, filter, handback);
     }
 
     public void removeConnectionNotificationListener(NotificationListener listener) throws ListenerNotFoundException {
         log.trace("removeConnectionNotificationListener()");
+        connectionNotifier.removeNotificationListener(listener);
     }
 
     public void removeConnectionNotificationListener(NotificationListener l, NotificationFilter f, Object handback)
             throws ListenerNotFoundException {
         log.trace("removeConnectionNotificationListener()");
+        connectionNotifier.removeNotificationListener(l, f, handback);
     }
 
     public String getConnectionId() throws IOException {
@@ -389,21 +616,81 @@ class RemotingConnector implements JMXConnector {
         return connectionId;
     }
 
-    private class ShutDownHook extends Thread {
-        private ShutDownHook() {
-            super(new Runnable() {
+    /**
+     * Repeatedly attempts to reconnect following the ReconnectPolicy until either a connection is established, the attempts
+     * are exhausted or the connector is closed.
+     */
+    private class Reconnector implements Runnable {
+
+        @Override
+        public void run() {
+            final String failedConnectionId = connectionId;
+            try {
+                for (int attempt = 1; reconnectPolicy.isAttemptPermitted(attempt); attempt++) {
+                    try {
+                        Thread.sleep(reconnectPolicy.getDelay(attempt));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
 
-                public void run() {
-                    if (state == ConnectorState.OPEN) {
-                        try {
-                            shutDownHook = null;
-                            close();
-                        } catch (IOException ignored) {
+                    try {
+                        if (reconnect()) {
+                            log.debugf("Reconnected after %d attempts, connection '%s' replaced by '%s'", attempt,
+                                    failedConnectionId, connectionId);
+                            // Any notifications emitted whilst disconnected will not be received.
+                            sendConnectionNotification(JMXConnectionNotification.NOTIFS_LOST, connectionId,
+                                    "Reconnected, notifications may have been lost", null);
                         }
+                        return;
+                    } catch (IOException e) {
+                        log.debugf(e, "Reconnection attempt %d failed", attempt);
                     }
                 }
-            });
+
+                // Without a connection the connector can not be used again.
+                if (internalClose()) {
+                    sendConnectionNotification(JMXConnectionNotification.FAILED, failedConnectionId, "Unable to reconnect",
+                            null);
+                }
+            } finally {
+                reconnecting.set(false);
+            }
+        }
+
+    }
+
+    /**
+     * Passes each call to the MBeanServerConnection of the current connection.
+     */
+    private class ReconnectingInvocationHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                String name = method.getName();
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                return "ReconnectingConnection(" + serviceUrl + ")";
+            }
+
+            VersionedConnection current = versionedConnection;
+            if (state == ConnectorState.CLOSED) {
+                throw new IOException("Connector already closed.");
+            } else if (current == null) {
+                throw new IOException("Connector not connected.");
+            }
+
+            try {
+                return method.invoke(current.getMBeanServerConnection(null), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
         }
+
     }
 
     private enum ConnectorState {
@@ -18,7 +18,16 @@
 
 package org.jboss.remotingjmx;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
 import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXServiceURL;
 
 import org.jboss.remoting3.Connection;
 
@@ -35,4 +44,60 @@ public interface RemotingMBeanServerConnection extends MBeanServerConnection {
 
     Connection getConnection();
 
+    /**
+     * Obtain the JMXServiceURL this connection was established with, this allows a gateway to open its own channels to the same
+     * MBeanServer.
+     *
+     * @return The JMXServiceURL or null if it is not known for the protocol version in use.
+     */
+    JMXServiceURL getServiceURL();
+
+    /**
+     * Obtain the number of requests sent using this connection that timed out before a response was received.
+     *
+     * @return The number of timed out requests by the name of the request message as used in the protocol documentation, only
+     *         messages with at least one timed out request are included, empty if the protocol version in use does not time
+     *         out requests.
+     */
+    Map<String, Long> getTimedOutRequests();
+
+    /**
+     * Add a listener to each of the MBeans, where the server supports it all of the listeners are added using a single request.
+     *
+     * @param names - The MBeans to add the listeners to.
+     * @param listeners - The listener to add to each MBean.
+     * @param filters - The filter for each listener, may be null if no filters are used.
+     * @param handbacks - The handback for each listener, may be null if no handbacks are used.
+     * @return The outcome for each MBean, null where the listener was added otherwise the exception that prevented it.
+     * @throws IOException - If the request could not be completed, in which case none of the listeners are added.
+     */
+    Exception[] addNotificationListeners(ObjectName[] names, NotificationListener[] listeners, NotificationFilter[] filters,
+            Object[] handbacks) throws IOException;
+
+    /**
+     * Remove all registrations of each listener from the corresponding MBean using a single request.
+     *
+     * @param names - The MBeans to remove the listeners from.
+     * @param listeners - The listener to remove from each MBean.
+     * @return The outcome for each MBean, null where the listener was removed otherwise the exception that prevented it.
+     * @throws IOException - If the request could not be completed.
+     */
+    Exception[] removeNotificationListeners(ObjectName[] names, NotificationListener[] listeners) throws IOException;
+
+    /**
+     * Obtain a Publisher of the notifications emitted by the MBean, each Subscriber adds its own listener when it subscribes and
+     * removes it when it cancels its subscription.
+     *
+     * Where the server supports it the demand signalled by the Subscriber is passed to the server so the server only sends the
+     * notifications requested, otherwise notifications not yet requested are held by the client up to a fixed limit after
+     * which the oldest are discarded.
+     *
+     * If the connection is closed each open subscription is ended by passing an IOException to the Subscriber's onError.
+     *
+     * @param name - The MBean to receive notifications from.
+     * @param filter - The filter to apply to the notifications, may be null.
+     * @return The Publisher of the notifications.
+     */
+    Flow.Publisher<Notification> getNotificationPublisher(ObjectName name, NotificationFilter filter);
+
 }
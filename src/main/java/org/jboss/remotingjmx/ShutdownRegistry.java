@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A registry of the open connectors to close when the JVM shuts down.
+ *
+ * A single shutdown hook is registered the first time a connector is registered, the connectors are only weakly referenced so a
+ * connector that is discarded without being closed can still be garbage collected.
+ */
+class ShutdownRegistry {
+
+    private static final Logger log = Logger.getLogger(ShutdownRegistry.class);
+
+    private static final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<Closeable> queue = new ReferenceQueue<Closeable>();
+    private static final AtomicBoolean hookRegistered = new AtomicBoolean(false);
+
+    // Prevent instantiation.
+    private ShutdownRegistry() {
+    }
+
+    /**
+     * Register a connector to be closed when the JVM shuts down.
+     *
+     * @param connector - The connector to close.
+     * @return The Registration that must be removed once the connector is closed.
+     */
+    static Registration register(final Closeable connector) {
+        if (hookRegistered.get() == false && hookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+                public void run() {
+                    closeAll();
+                }
+            }, "Remoting JMX Shutdown Hook"));
+        }
+
+        expungeStaleRegistrations();
+        Registration registration = new Registration(connector);
+        registrations.add(registration);
+
+        return registration;
+    }
+
+    private static void expungeStaleRegistrations() {
+        Reference<? extends Closeable> stale;
+        while ((stale = queue.poll()) != null) {
+            registrations.remove(stale);
+        }
+    }
+
+    private static void closeAll() {
+        for (Registration current : registrations) {
+            Closeable connector = current.get();
+            if (connector != null) {
+                try {
+                    connector.close();
+                } catch (IOException e) {
+                    log.tracef(e, "Unable to close connector on shutdown.");
+                }
+            }
+        }
+        registrations.clear();
+    }
+
+    /**
+     * The registration of a single connector.
+     */
+    static class Registration extends WeakReference<Closeable> {
+
+        private Registration(final Closeable connector) {
+            super(connector, queue);
+        }
+
+        /**
+         * Remove this registration so the connector is no longer closed when the JVM shuts down.
+         */
+        void remove() {
+            registrations.remove(this);
+            clear();
+        }
+
+    }
+
+}
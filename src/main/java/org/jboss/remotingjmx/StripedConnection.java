@@ -0,0 +1,194 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.CHANNEL_POOL_SIZE;
+import static org.jboss.remotingjmx.Util.getInteger;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServerConnection;
+import javax.security.auth.Subject;
+
+import org.jboss.logging.Logger;
+import org.jboss.remoting3.Channel;
+
+/**
+ * A VersionedConnection spreading requests across a pool of channels opened over the same Remoting connection.
+ *
+ * Each channel is negotiated independently so has its own session with the server and its own outstanding requests, the first
+ * channel is the primary and is used for all notification listener registrations as notifications are only received by the
+ * session the listener was registered with.
+ */
+class StripedConnection implements VersionedConnection, NotificationListenerReplay {
+
+    private static final Logger log = Logger.getLogger(StripedConnection.class);
+
+    private static final int DEFAULT_POOL_SIZE = 1;
+
+    private final VersionedConnection primary;
+    private final VersionedConnection[] connections;
+    private final List<Channel> secondaryChannels;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile MBeanServerConnection mbeanServerConnection;
+
+    /**
+     * @param connections - The connections to spread requests across, the first connection is the primary.
+     * @param secondaryChannels - The channels of all but the primary connection, closed when this connection is closed.
+     */
+    StripedConnection(final VersionedConnection[] connections, final List<Channel> secondaryChannels) {
+        this.primary = connections[0];
+        this.connections = connections;
+        this.secondaryChannels = secondaryChannels;
+    }
+
+    /**
+     * Obtain the number of channels to open for a single connection.
+     */
+    static int getPoolSize(final Map<String, ?> environment) {
+        Integer value = environment == null ? null : getInteger(environment.get(CHANNEL_POOL_SIZE));
+        if (value == null) {
+            value = Integer.getInteger(CHANNEL_POOL_SIZE, DEFAULT_POOL_SIZE);
+        }
+
+        return Math.max(value, 1);
+    }
+
+    /**
+     * @return The channels of all but the primary connection.
+     */
+    List<Channel> getSecondaryChannels() {
+        return secondaryChannels;
+    }
+
+    @Override
+    public String getConnectionId() {
+        return primary.getConnectionId();
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServerConnection(final Subject subject) {
+        if (subject != null) {
+            return primary.getMBeanServerConnection(subject);
+        }
+
+        if (mbeanServerConnection == null) {
+            synchronized (this) {
+                if (mbeanServerConnection == null) {
+                    mbeanServerConnection = (MBeanServerConnection) Proxy.newProxyInstance(
+                            RemotingMBeanServerConnection.class.getClassLoader(),
+                            new Class<?>[] { RemotingMBeanServerConnection.class }, new StripedInvocationHandler());
+                }
+            }
+        }
+
+        return mbeanServerConnection;
+    }
+
+    @Override
+    public boolean replayNotificationListeners(final VersionedConnection previous) throws IOException {
+        VersionedConnection toReplay = previous instanceof StripedConnection ? ((StripedConnection) previous).primary : previous;
+
+        return primary instanceof NotificationListenerReplay
+                && ((NotificationListenerReplay) primary).replayNotificationListeners(toReplay);
+    }
+
+    @Override
+    public void close() {
+        for (int i = 1; i < connections.length; i++) {
+            connections[i].close();
+        }
+        for (Channel current : secondaryChannels) {
+            try {
+                current.writeShutdown();
+            } catch (IOException ignored) {
+            }
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.tracef(e, "Unable to close channel");
+            }
+        }
+        primary.close();
+    }
+
+    /**
+     * Sends notification related calls to the primary connection and spreads all other calls across the connections in turn.
+     */
+    private class StripedInvocationHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                String name = method.getName();
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                return "StripedConnection(" + getConnectionId() + ")";
+            }
+
+            if ("getTimedOutRequests".equals(method.getName())) {
+                return getTimedOutRequests();
+            }
+
+            VersionedConnection target = isPrimaryOnly(method) ? primary : connections[(next.getAndIncrement() & Integer.MAX_VALUE)
+                    % connections.length];
+            try {
+                return method.invoke(target.getMBeanServerConnection(null), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Each channel of the pool times out its own requests so the counts of all of the channels are combined.
+         */
+        private Map<String, Long> getTimedOutRequests() {
+            Map<String, Long> timedOut = new HashMap<String, Long>();
+            for (VersionedConnection current : connections) {
+                Map<String, Long> currentTimedOut = ((RemotingMBeanServerConnection) current.getMBeanServerConnection(null))
+                        .getTimedOutRequests();
+                for (Map.Entry<String, Long> entry : currentTimedOut.entrySet()) {
+                    Long previous = timedOut.get(entry.getKey());
+                    timedOut.put(entry.getKey(), previous != null ? previous + entry.getValue() : entry.getValue());
+                }
+            }
+
+            return timedOut;
+        }
+
+        private boolean isPrimaryOnly(final Method method) {
+            return method.getDeclaringClass() == RemotingMBeanServerConnection.class
+                    || method.getName().endsWith("NotificationListener");
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@
 
 package org.jboss.remotingjmx;
 
+import static org.jboss.remotingjmx.Constants.CHANNEL_NAME;
 import static org.jboss.remotingjmx.Constants.HTTPS_SCHEME;
 import static org.jboss.remotingjmx.Constants.HTTP_SCHEME;
 import static org.jboss.remotingjmx.Constants.PROTOCOL_HTTPS_REMOTING_JMX;
@@ -110,6 +111,25 @@ public class Util {
         }
     }
 
+    /**
+     * Obtain the name of the Remoting service to open a channel to from the path of the JMXServiceURL.
+     */
+    static String getServiceName(final JMXServiceURL serviceUrl) {
+        String serviceName = serviceUrl.getURLPath();
+        if (serviceName.startsWith("/") || serviceName.startsWith(";")) {
+            serviceName = serviceName.substring(1);
+            if (serviceName.contains("?")) {
+                // Drop any query parameters when identifying the service name.
+                serviceName = serviceName.substring(0, serviceName.indexOf('?'));
+            }
+        }
+        if (serviceName.length() == 0) {
+            serviceName = CHANNEL_NAME;
+        }
+
+        return serviceName;
+    }
+
     public static Integer getTimeoutValue(Timeout property, Map<String, ?> environment) {
         // Check for most specific system property first
         Integer timeoutSeconds = Integer.getInteger(property.toString());
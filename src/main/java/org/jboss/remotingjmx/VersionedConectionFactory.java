@@ -22,6 +22,7 @@ import static org.jboss.remotingjmx.Constants.JMX;
 import static org.jboss.remotingjmx.Constants.JMX_BYTES;
 import static org.jboss.remotingjmx.Constants.SNAPSHOT;
 import static org.jboss.remotingjmx.Constants.STABLE;
+import static org.jboss.remotingjmx.Util.getServiceName;
 import static org.jboss.remotingjmx.Util.getTimeoutValue;
 
 import java.io.DataInputStream;
@@ -36,6 +37,7 @@ import javax.management.remote.JMXServiceURL;
 
 import org.jboss.logging.Logger;
 import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.MessageInputStream;
 import org.jboss.remotingjmx.Util.Timeout;
 import org.jboss.remotingjmx.protocol.CancellableDataOutputStream;
@@ -43,6 +45,7 @@ import org.jboss.remotingjmx.protocol.Versions;
 import org.xnio.AbstractIoFuture;
 import org.xnio.IoFuture;
 import org.xnio.IoUtils;
+import org.xnio.OptionMap;
 
 /**
  * The VersionedConnectionFactory to negotiate the version on the client side and return an appropriate VersionedConnection for
@@ -63,18 +66,7 @@ class VersionedConectionFactory {
         // We don't want to start chaining the use of IoFutures otherwise multiple threads are tied up
         // for a single negotiation process so negotiate the connection sequentially.
 
-        IoFuture<InitialHeader> futureHeader = ClientVersionReceiver.getInitialHeader(channel);
-        IoFuture.Status result = futureHeader.await(getTimeoutValue(Timeout.VERSIONED_CONNECTION, environment), TimeUnit.SECONDS);
-        switch (result) {
-            case DONE:
-                break;
-            case FAILED:
-                throw futureHeader.getException();
-            default:
-                throw new IOException("Timeout out waiting for header, status=" + result.toString());
-        }
-
-        InitialHeader header = futureHeader.get();
+        InitialHeader header = awaitInitialHeader(channel, environment);
 
         Versions versions = new Versions(environment);
         Set<Byte> supportedVersions = versions.getSupportedVersions(getRequiredCapabilities(serviceURL));
@@ -96,6 +88,69 @@ class VersionedConectionFactory {
         return versions.getVersionedConnection(highest, channel, serviceURL);
     }
 
+    /**
+     * Open a channel to the server of the Connection for a gateway to relay the messages of a client to, the version selected by
+     * the client is selected and begin called using the parameters of the JMXServiceURL.
+     *
+     * @param connection - The Remoting connection to the backend server.
+     * @param serviceURL - The JMXServiceURL the connection to the backend server was established with.
+     * @param environment - The environment of the gateway.
+     * @param version - The version selected by the client.
+     * @param requestTimeout - The request timeout of the client.
+     * @return The channel ready to relay the messages of the client.
+     * @throws IOException - If the channel can not be opened or the server does not support the version.
+     */
+    static Channel openRelayChannel(final Connection connection, final JMXServiceURL serviceURL,
+            final Map<String, ?> environment, final byte version, final int requestTimeout) throws IOException {
+        IoFuture<Channel> futureChannel = connection.openChannel(getServiceName(serviceURL), OptionMap.EMPTY);
+        IoFuture.Status result = futureChannel.await(getTimeoutValue(Timeout.CHANNEL, environment), TimeUnit.SECONDS);
+        switch (result) {
+            case DONE:
+                break;
+            case FAILED:
+                throw futureChannel.getException();
+            default:
+                throw new IOException("Timeout out waiting for channel, status=" + result.toString());
+        }
+
+        Channel channel = futureChannel.get();
+        try {
+            InitialHeader header = awaitInitialHeader(channel, environment);
+            boolean offered = false;
+            for (byte current : header.versions) {
+                offered |= current == version;
+            }
+            Versions versions = new Versions(environment);
+            if (offered == false || versions.getSupportedVersions().contains(version) == false) {
+                throw new IOException(String.format("Version 0x0%d can not be relayed to %s", version, serviceURL));
+            }
+
+            String connectionId = versions.beginRelay(version, channel, serviceURL, requestTimeout);
+            log.debugf("Relay channel opened to %s with connection ID %s", serviceURL, connectionId);
+
+            return channel;
+        } catch (IOException e) {
+            IoUtils.safeClose(channel);
+            throw e;
+        }
+    }
+
+    private static InitialHeader awaitInitialHeader(final Channel channel, final Map<String, ?> environment)
+            throws IOException {
+        IoFuture<InitialHeader> futureHeader = ClientVersionReceiver.getInitialHeader(channel);
+        IoFuture.Status result = futureHeader.await(getTimeoutValue(Timeout.VERSIONED_CONNECTION, environment), TimeUnit.SECONDS);
+        switch (result) {
+            case DONE:
+                break;
+            case FAILED:
+                throw futureHeader.getException();
+            default:
+                throw new IOException("Timeout out waiting for header, status=" + result.toString());
+        }
+
+        return futureHeader.get();
+    }
+
     private static Capability[] getRequiredCapabilities(final JMXServiceURL serviceURL) {
         Set<Capability> requiredCapabilities = new HashSet<Capability>();
         String path = serviceURL.getURLPath();
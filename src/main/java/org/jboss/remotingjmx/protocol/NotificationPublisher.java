@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Flow;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A Flow.Publisher of the notifications emitted by a single MBean.
+ *
+ * Each Subscriber has its own notification listener, where the server supports credits the demand signalled by the Subscriber
+ * is granted to the server as credits so the server only sends the notifications that have been requested. Otherwise the
+ * notifications are held locally until requested, once {@link #MAX_BUFFERED} notifications are held the oldest are discarded.
+ *
+ * Each subscription is tracked by the {@link Subscriptions} of the connection so it can be ended with an IOException if the
+ * connection is closed.
+ */
+public class NotificationPublisher implements Flow.Publisher<Notification> {
+
+    private static final Logger log = Logger.getLogger(NotificationPublisher.class);
+
+    public static final int MAX_BUFFERED = 1024;
+
+    private final ObjectName name;
+    private final NotificationFilter filter;
+    private final Source source;
+    private final Subscriptions subscriptions;
+
+    public NotificationPublisher(final ObjectName name, final NotificationFilter filter, final Source source,
+            final Subscriptions subscriptions) {
+        this.name = name;
+        this.filter = filter;
+        this.source = source;
+        this.subscriptions = subscriptions;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Notification> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+
+        NotificationSubscription subscription = new NotificationSubscription(subscriber);
+        try {
+            subscription.listenerId = source.addListener(name, subscription, filter);
+        } catch (InstanceNotFoundException e) {
+            failed(subscriber, e);
+            return;
+        } catch (IOException e) {
+            failed(subscriber, e);
+            return;
+        }
+
+        subscriber.onSubscribe(subscription);
+        if (subscriptions.add(subscription) == false) {
+            subscription.failed(new IOException("Connection closed"));
+        }
+    }
+
+    private static void failed(final Flow.Subscriber<? super Notification> subscriber, final Exception e) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(e);
+    }
+
+    /**
+     * The connection operations used by the publisher.
+     */
+    public interface Source {
+
+        /**
+         * Add a listener to the MBean, where supported the listener is only sent notifications as credits are granted.
+         *
+         * @return The ID of the listener to grant credits to or -1 if credits are not supported.
+         */
+        int addListener(ObjectName name, NotificationListener listener, NotificationFilter filter)
+                throws InstanceNotFoundException, IOException;
+
+        /**
+         * Grant credits to the listener, Integer.MAX_VALUE grants unlimited credits.
+         */
+        void grantCredits(int listenerId, int credits);
+
+        /**
+         * Remove the listener from the MBean, this should not wait for the removal to complete.
+         */
+        void removeListener(ObjectName name, NotificationListener listener);
+
+    }
+
+    /**
+     * The open subscriptions of a single connection.
+     */
+    public static class Subscriptions {
+
+        // Guarded by this
+        private final Set<NotificationSubscription> open = new HashSet<NotificationSubscription>();
+        private boolean closed = false;
+
+        private synchronized boolean add(final NotificationSubscription subscription) {
+            if (closed) {
+                return false;
+            }
+            open.add(subscription);
+            return true;
+        }
+
+        private synchronized void remove(final NotificationSubscription subscription) {
+            open.remove(subscription);
+        }
+
+        /**
+         * End all of the open subscriptions with the supplied IOException as the connection has been closed, any subscriptions
+         * added after this are ended immediately.
+         */
+        public void close(final IOException reason) {
+            List<NotificationSubscription> toFail;
+            synchronized (this) {
+                closed = true;
+                toFail = new ArrayList<NotificationSubscription>(open);
+                open.clear();
+            }
+
+            for (NotificationSubscription current : toFail) {
+                current.failed(reason);
+            }
+        }
+
+    }
+
+    private class NotificationSubscription implements Flow.Subscription, NotificationListener {
+
+        private final Flow.Subscriber<? super Notification> subscriber;
+        private volatile int listenerId = -1;
+        // Guarded by this
+        private final ArrayDeque<Notification> pending = new ArrayDeque<Notification>();
+        private long demand = 0;
+        private boolean draining = false;
+        private boolean cancelled = false;
+        private IOException failure;
+
+        private NotificationSubscription(final Flow.Subscriber<? super Notification> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void handleNotification(final Notification notification, final Object handback) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                pending.addLast(notification);
+                if (pending.size() > MAX_BUFFERED) {
+                    pending.pollFirst();
+                    log.tracef("Discarding notification from %s not requested by the Subscriber", name);
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("The number of notifications requested must be positive."));
+                return;
+            }
+
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                demand = demand > Long.MAX_VALUE - n ? Long.MAX_VALUE : demand + n;
+            }
+
+            int currentId = listenerId;
+            if (currentId >= 0) {
+                source.grantCredits(currentId, (int) Math.min(n, Integer.MAX_VALUE));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+            source.removeListener(name, this);
+        }
+
+        /**
+         * The connection has been closed, the listener has already gone with it so the Subscriber is only sent the error.
+         */
+        private void failed(final IOException reason) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                pending.clear();
+                failure = reason;
+            }
+            drain();
+        }
+
+        /**
+         * Deliver the pending notifications whilst there is demand, only one thread delivers at a time so the Subscriber is
+         * called serially, this includes calls to request from within onNext and the error if the connection is closed.
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+
+            while (true) {
+                Notification next;
+                IOException reason;
+                synchronized (this) {
+                    reason = failure;
+                    failure = null;
+                    if (reason != null) {
+                        draining = false;
+                    } else if (cancelled || demand == 0 || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    next = pending.pollFirst();
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                }
+
+                if (reason != null) {
+                    // Cancelled so nothing further is delivered.
+                    subscriber.onError(reason);
+                    return;
+                }
+
+                try {
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    log.warnf(e, "Subscriber failed handling notification from %s, cancelling subscription", name);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    cancel();
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -37,6 +37,7 @@ import org.jboss.remotingjmx.MBeanServerManager;
 import org.jboss.remotingjmx.ServerMessageInterceptor;
 import org.jboss.remotingjmx.VersionedConnection;
 import org.jboss.remotingjmx.protocol.v1.VersionOne;
+import org.jboss.remotingjmx.protocol.v2.VersionThree;
 import org.jboss.remotingjmx.protocol.v2.VersionTwo;
 
 /**
@@ -60,6 +61,7 @@ public class Versions {
         Map<Byte, Set<Capability>> supportedVersions = new HashMap<Byte, Set<Capability>>();
         supportedVersions.put(VersionOne.getVersionIdentifier(), VersionOne.getCapabilites());
         supportedVersions.put(VersionTwo.getVersionIdentifier(), VersionTwo.getCapabilities());
+        supportedVersions.put(VersionThree.getVersionIdentifier(), VersionThree.getCapabilities());
         for (Byte current : getExcludedVersions()) {
             supportedVersions.remove(current);
         }
@@ -122,6 +124,8 @@ public class Versions {
                 return VersionOne.getConnection(channel, environment);
             } else if (version == VersionTwo.getVersionIdentifier()) {
                 return VersionTwo.getConnection(channel, environment, serviceURL);
+            } else if (version == VersionThree.getVersionIdentifier()) {
+                return VersionThree.getConnection(channel, environment, serviceURL);
             }
         } else {
             log.warnf("An attempt has been made to select an unsupported version 0x0%d", version);
@@ -130,6 +134,25 @@ public class Versions {
         throw new IllegalArgumentException("Unsupported protocol version.");
     }
 
+    /**
+     * Select the version on a channel opened by a gateway and call begin, once complete the messages of a client that selected
+     * the same version can be relayed using the channel.
+     *
+     * @return The connection ID returned by the server in response to begin.
+     */
+    public String beginRelay(final byte version, final Channel channel, final JMXServiceURL serviceURL,
+            final int requestTimeout) throws IOException {
+        if (supportedVersions.containsKey(version)) {
+            if (version == VersionTwo.getVersionIdentifier()) {
+                return VersionTwo.beginRelay(channel, environment, serviceURL, requestTimeout);
+            } else if (version == VersionThree.getVersionIdentifier()) {
+                return VersionThree.beginRelay(channel, environment, serviceURL, requestTimeout);
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported protocol version for relaying.");
+    }
+
     public void startServer(final byte version, final Channel channel, final MBeanServerManager serverManager,
             final Executor executor, final ServerMessageInterceptor serverMessageInterceptor) throws IOException {
         if (supportedVersions.containsKey(version)) {
@@ -137,6 +160,8 @@ public class Versions {
                 VersionOne.startServer(channel, serverManager.getDefaultMBeanServer(), executor, serverMessageInterceptor);
             } else if (version == VersionTwo.getVersionIdentifier()) {
                 VersionTwo.startServer(channel, serverManager, executor, serverMessageInterceptor);
+            } else if (version == VersionThree.getVersionIdentifier()) {
+                VersionThree.startServer(channel, serverManager, executor, serverMessageInterceptor, environment);
             }
             return;
         } else {
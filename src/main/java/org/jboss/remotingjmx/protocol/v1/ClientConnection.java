@@ -77,6 +77,7 @@ import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -88,6 +89,7 @@ import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
 import javax.management.JMRuntimeException;
 import javax.management.ListenerNotFoundException;
 import javax.management.MBeanException;
@@ -102,16 +104,19 @@ import javax.management.ObjectInstance;
 import javax.management.ObjectName;
 import javax.management.QueryExp;
 import javax.management.ReflectionException;
+import javax.management.remote.JMXServiceURL;
 import javax.security.auth.Subject;
 
 import org.jboss.logging.Logger;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.MessageInputStream;
 import org.jboss.remotingjmx.RemotingMBeanServerConnection;
 import org.jboss.remotingjmx.VersionedConnection;
+import org.jboss.remotingjmx.protocol.NotificationPublisher;
 import org.xnio.IoFuture;
 import org.xnio.IoUtils;
 
@@ -140,6 +145,7 @@ class ClientConnection extends Common implements VersionedConnection {
     private String connectionId;
     private TheConnection mbeanServerConnection;
     private LocalNotificationManager localNotificationManager;
+    private final NotificationPublisher.Subscriptions publisherSubscriptions = new NotificationPublisher.Subscriptions();
 
     private int nextCorrelationId = 1;
 
@@ -231,6 +237,13 @@ class ClientConnection extends Common implements VersionedConnection {
                 connectionId = futureConnectionId.get();
                 mbeanServerConnection = new TheConnection();
                 localNotificationManager = new LocalNotificationManager();
+                channel.addCloseHandler(new CloseHandler<Channel>() {
+
+                    @Override
+                    public void handleClose(Channel closed, IOException exception) {
+                        publisherSubscriptions.close(exception != null ? exception : new IOException("Connection closed"));
+                    }
+                });
                 channel.receiveMessage(new MessageReceiver());
                 break;
             case FAILED:
@@ -496,6 +509,17 @@ class ClientConnection extends Common implements VersionedConnection {
             return channel.getConnection();
         }
 
+        public JMXServiceURL getServiceURL() {
+            // Version one connections do not pass parameters so are not opened by a gateway.
+            return null;
+        }
+
+        @Override
+        public Map<String, Long> getTimedOutRequests() {
+            // Version one connections do not time out requests.
+            return Collections.emptyMap();
+        }
+
         // TODO - Consider a proxy so the specific methods only need to marshall their specific
         // portion of the protocol.
 
@@ -1595,6 +1619,117 @@ class ClientConnection extends Common implements VersionedConnection {
             removeNotificationListener(localNotificationManager.matchToRemove(name, listener, filter, handback));
         }
 
+        public Exception[] addNotificationListeners(ObjectName[] names, NotificationListener[] listeners,
+                NotificationFilter[] filters, Object[] handbacks) throws IOException {
+            checkBulkArguments(names, listeners, filters, handbacks);
+
+            Exception[] outcomes = new Exception[names.length];
+            int i = 0;
+            try {
+                for (; i < names.length; i++) {
+                    try {
+                        addNotificationListener(names[i], listeners[i], filters == null ? null : filters[i],
+                                handbacks == null ? null : handbacks[i]);
+                    } catch (InstanceNotFoundException e) {
+                        outcomes[i] = e;
+                    } catch (JMRuntimeException e) {
+                        outcomes[i] = e;
+                    }
+                }
+            } catch (IOException e) {
+                // None of the listeners are left added if the request could not be completed.
+                for (int j = 0; j < i; j++) {
+                    if (outcomes[j] == null) {
+                        try {
+                            removeNotificationListener(names[j], listeners[j], filters == null ? null : filters[j],
+                                    handbacks == null ? null : handbacks[j]);
+                        } catch (Exception re) {
+                            log.debugf(re, "Unable to remove listener from %s", names[j]);
+                        }
+                    }
+                }
+                throw e;
+            }
+
+            return outcomes;
+        }
+
+        /**
+         * Protocol version 1 does not support credits so notifications not yet requested are held by the publisher.
+         */
+        public Flow.Publisher<Notification> getNotificationPublisher(final ObjectName name, final NotificationFilter filter) {
+            return new NotificationPublisher(name, filter, new NotificationPublisher.Source() {
+
+                @Override
+                public int addListener(ObjectName name, NotificationListener listener, NotificationFilter filter)
+                        throws InstanceNotFoundException, IOException {
+                    addNotificationListener(name, listener, filter, null);
+                    return -1;
+                }
+
+                @Override
+                public void grantCredits(int listenerId, int credits) {
+                    // Not called as no listener ID is returned.
+                }
+
+                @Override
+                public void removeListener(final ObjectName name, final NotificationListener listener) {
+                    executor.execute(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            try {
+                                removeNotificationListener(name, listener);
+                            } catch (Exception e) {
+                                log.debugf(e, "Unable to remove publisher listener from %s", name);
+                            }
+                        }
+                    });
+                }
+            }, publisherSubscriptions);
+        }
+
+        public Exception[] removeNotificationListeners(ObjectName[] names, NotificationListener[] listeners)
+                throws IOException {
+            checkBulkArguments(names, listeners, null, null);
+
+            Exception[] outcomes = new Exception[names.length];
+            int[][] matched = new int[names.length][];
+            int total = 0;
+            for (int i = 0; i < names.length; i++) {
+                matched[i] = localNotificationManager.matchToRemove(names[i], listeners[i]);
+                if (matched[i].length == 0) {
+                    outcomes[i] = new ListenerNotFoundException("Listener not found");
+                }
+                total += matched[i].length;
+            }
+
+            if (total > 0) {
+                // All of the matched listeners are removed from the server using a single request.
+                int[] toRemove = new int[total];
+                int position = 0;
+                for (int[] current : matched) {
+                    System.arraycopy(current, 0, toRemove, position, current.length);
+                    position += current.length;
+                }
+                try {
+                    removeNotificationListener(toRemove);
+                } catch (JMException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            return outcomes;
+        }
+
+        private void checkBulkArguments(ObjectName[] names, NotificationListener[] listeners, NotificationFilter[] filters,
+                Object[] handbacks) {
+            if (listeners.length != names.length || (filters != null && filters.length != names.length)
+                    || (handbacks != null && handbacks.length != names.length)) {
+                throw new IllegalArgumentException("An entry is required for each ObjectName");
+            }
+        }
+
         public MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException, IntrospectionException,
                 ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<MBeanInfo>> future = new VersionedIoFuture<TypeExceptionHolder<MBeanInfo>>();
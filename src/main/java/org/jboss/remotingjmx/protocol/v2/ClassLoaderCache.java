@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.relation.MBeanServerNotificationFilter;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A cache of the ClassLoaders used to unmarshall the parameters for calls to the MBeans of a single MBeanServer.
+ *
+ * A single cache is shared by all connections to the same MBeanServer, entries are removed as soon as the MBeanServerDelegate
+ * reports that the MBean the entry was cached for has been unregistered. Each entry also caches a limited number of the
+ * classes resolved using it's ClassLoader so repeated calls to the same MBean do not need to repeat the class resolution.
+ *
+ * Each connection obtaining the cache must release it once the connection is closed, once all connections have released the
+ * cache the listener registered with the MBeanServerDelegate is removed and the cache is discarded.
+ */
+class ClassLoaderCache {
+
+    private static final Logger log = Logger.getLogger(ClassLoaderCache.class);
+
+    /**
+     * The maximum number of classes cached for each ClassLoader, once reached further classes are resolved without being cached.
+     */
+    private static final int MAX_CACHED_CLASSES = 256;
+
+    // Guarded by caches
+    private static final Map<MBeanServer, ClassLoaderCache> caches = new WeakHashMap<MBeanServer, ClassLoaderCache>();
+
+    private final WeakReference<MBeanServer> server;
+    /**
+     * Cache of the ClassLoaders returned by MBeanServer.getClassLoaderFor()
+     */
+    private final ConcurrentMap<ObjectName, CachedClassLoader> mbeanClassLoaders = new ConcurrentHashMap<ObjectName, CachedClassLoader>();
+    /**
+     * Cache of the ClassLoaders returned by MBeanServer.getClassLoader()
+     */
+    private final ConcurrentMap<ObjectName, CachedClassLoader> loaderClassLoaders = new ConcurrentHashMap<ObjectName, CachedClassLoader>();
+    /**
+     * Incremented each time an MBean is unregistered so a lookup that raced with the unregistration is not cached.
+     */
+    private long generation = 0;
+    private volatile boolean enabled = false;
+    private final NotificationListener listener = new UnregistrationListener();
+    private final MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+    // Guarded by caches
+    private int references = 0;
+
+    private ClassLoaderCache(final MBeanServer server) {
+        this.server = new WeakReference<MBeanServer>(server);
+    }
+
+    /**
+     * Get the ClassLoaderCache for the specified MBeanServer creating it if this is the first call for the MBeanServer, each
+     * call must be followed by a call to {@link #release()} once the cache is no longer required.
+     *
+     * @param server - The MBeanServer the ClassLoaders will be obtained from.
+     * @return The ClassLoaderCache for the MBeanServer.
+     */
+    static ClassLoaderCache getCache(final MBeanServer server) {
+        synchronized (caches) {
+            ClassLoaderCache cache = caches.get(server);
+            if (cache == null) {
+                cache = new ClassLoaderCache(server);
+                cache.registerListener(server);
+                caches.put(server, cache);
+            }
+            cache.references++;
+
+            return cache;
+        }
+    }
+
+    /**
+     * Release a reference obtained from {@link #getCache(MBeanServer)}, once all references have been released the cache is
+     * discarded.
+     */
+    void release() {
+        final MBeanServer server;
+        synchronized (caches) {
+            if (--references > 0) {
+                return;
+            }
+            server = this.server.get();
+            if (server == null) {
+                // The entry in caches has already been cleared.
+                return;
+            }
+            if (caches.get(server) == this) {
+                caches.remove(server);
+            }
+        }
+
+        if (enabled) {
+            enabled = false;
+            removeListener(server);
+            // Without the listener the entries could become stale.
+            synchronized (this) {
+                generation++;
+                mbeanClassLoaders.clear();
+                loaderClassLoaders.clear();
+            }
+        }
+    }
+
+    /**
+     * @return true if this is the ClassLoaderCache for the specified MBeanServer.
+     */
+    boolean isCacheFor(final MBeanServer server) {
+        return this.server.get() == server;
+    }
+
+    private void registerListener(final MBeanServer server) {
+        filter.enableAllObjectNames();
+        filter.disableType(MBeanServerNotification.REGISTRATION_NOTIFICATION);
+        try {
+            // As with the ClassLoader lookups the subject is cleared so this internal registration is always permitted.
+            AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
+                @Override
+                public Void run() throws Exception {
+                    server.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, filter, null);
+                    return null;
+                }
+            });
+            enabled = true;
+        } catch (PrivilegedActionException e) {
+            // Without the notifications we can not tell when an entry is stale so every lookup goes to the MBeanServer.
+            log.debugf(e.getCause(), "Unable to register for unregistration notifications, ClassLoaders will not be cached.");
+        }
+    }
+
+    private void removeListener(final MBeanServer server) {
+        try {
+            AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
+                @Override
+                public Void run() throws Exception {
+                    server.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, filter, null);
+                    return null;
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            log.debugf(e.getCause(), "Unable to remove the unregistration notification listener.");
+        }
+    }
+
+    /**
+     * Obtain the ClassLoader for the specified MBean as returned by {@link MBeanServer#getClassLoaderFor(ObjectName)}.
+     */
+    CachedClassLoader getClassLoaderFor(final MBeanServer server, final ObjectName name) throws PrivilegedActionException {
+        CachedClassLoader cached = mbeanClassLoaders.get(name);
+        if (cached != null) {
+            return cached;
+        }
+
+        return cache(mbeanClassLoaders, name, new PrivilegedExceptionAction<ClassLoader>() {
+            @Override
+            public ClassLoader run() throws Exception {
+                return server.getClassLoaderFor(name);
+            }
+        });
+    }
+
+    /**
+     * Obtain the ClassLoader registered as the specified MBean as returned by {@link MBeanServer#getClassLoader(ObjectName)}.
+     */
+    CachedClassLoader getClassLoader(final MBeanServer server, final ObjectName loaderName) throws PrivilegedActionException {
+        CachedClassLoader cached = loaderClassLoaders.get(loaderName);
+        if (cached != null) {
+            return cached;
+        }
+
+        return cache(loaderClassLoaders, loaderName, new PrivilegedExceptionAction<ClassLoader>() {
+            @Override
+            public ClassLoader run() throws Exception {
+                return server.getClassLoader(loaderName);
+            }
+        });
+    }
+
+    private CachedClassLoader cache(final ConcurrentMap<ObjectName, CachedClassLoader> cache, final ObjectName name,
+            final PrivilegedExceptionAction<ClassLoader> lookup) throws PrivilegedActionException {
+        final long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+
+        // This privileged block is needed!
+        // This classloader switch is an internal call to do other things.
+        // When running WildFly with RBAC, normally, if there is a subject, only superuser
+        // or administrator can call this method on the MBeanServer, meaning that the 'other things' will fail.
+        // Tbe privileged block clears the subject so the internal call will work
+        ClassLoader loader = AccessController.doPrivileged(lookup);
+        // if the loader was null, chances are it was the bootstrap classloader so try that
+        if (loader == null) {
+            loader = ClassLoader.getSystemClassLoader();
+        }
+
+        CachedClassLoader cached = new CachedClassLoader(loader);
+        if (enabled) {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    CachedClassLoader existing = cache.putIfAbsent(name, cached);
+                    if (existing != null) {
+                        cached = existing;
+                    }
+                }
+            }
+        }
+
+        return cached;
+    }
+
+    private synchronized void invalidate(final ObjectName name) {
+        generation++;
+        mbeanClassLoaders.remove(name);
+        loaderClassLoaders.remove(name);
+    }
+
+    private class UnregistrationListener implements NotificationListener {
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (notification instanceof MBeanServerNotification) {
+                invalidate(((MBeanServerNotification) notification).getMBeanName());
+            }
+        }
+
+    }
+
+    /**
+     * A ClassLoader and the classes that have already been resolved using it.
+     */
+    static class CachedClassLoader {
+
+        private final ClassLoader classLoader;
+        private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+        CachedClassLoader(final ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        Class<?> loadClass(final String name) throws ClassNotFoundException {
+            Class<?> clazz = classes.get(name);
+            if (clazz == null) {
+                clazz = Class.forName(name, false, classLoader);
+                // The size check races with other callers so the limit may be exceeded slightly.
+                if (classes.size() < MAX_CACHED_CLASSES) {
+                    classes.putIfAbsent(name, clazz);
+                }
+            }
+
+            return clazz;
+        }
+
+    }
+
+}
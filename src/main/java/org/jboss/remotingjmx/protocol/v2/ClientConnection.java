@@ -18,11 +18,21 @@
 
 package org.jboss.remotingjmx.protocol.v2;
 
+import static org.jboss.remotingjmx.Constants.HEARTBEAT_INTERVAL;
+import static org.jboss.remotingjmx.Constants.HEARTBEAT_MAX_MISSED;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH_SIZE;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH_TIMEOUT;
+import static org.jboss.remotingjmx.Util.getInteger;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENERS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ATTRIBUTE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ATTRIBUTE_LIST;
 import static org.jboss.remotingjmx.protocol.v2.Constants.BOOLEAN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CANCEL;
 import static org.jboss.remotingjmx.protocol.v2.Constants.CREATE_MBEAN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CREDITED_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.FETCH_NOTIFICATIONS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTES;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_DEFAULT_DOMAIN;
@@ -37,11 +47,15 @@ import static org.jboss.remotingjmx.protocol.v2.Constants.INVOKE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.IS_REGISTERED;
 import static org.jboss.remotingjmx.protocol.v2.Constants.MBEAN_INFO;
 import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION;
+import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_ARRAY;
+import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_CREDITS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_FILTER;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_ARRAY;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_INSTANCE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_NAME;
+import static org.jboss.remotingjmx.protocol.v2.Constants.PATTERN_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.PING;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_EXP;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_MBEANS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_NAMES;
@@ -66,7 +80,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -75,6 +92,7 @@ import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
 import javax.management.JMRuntimeException;
 import javax.management.ListenerNotFoundException;
 import javax.management.MBeanException;
@@ -89,15 +107,19 @@ import javax.management.ObjectInstance;
 import javax.management.ObjectName;
 import javax.management.QueryExp;
 import javax.management.ReflectionException;
+import javax.management.remote.JMXServiceURL;
 import javax.security.auth.Subject;
 
 import org.jboss.logging.Logger;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
+import org.jboss.remotingjmx.NotificationListenerReplay;
 import org.jboss.remotingjmx.RemotingMBeanServerConnection;
 import org.jboss.remotingjmx.VersionedConnection;
+import org.jboss.remotingjmx.protocol.NotificationPublisher;
 import org.xnio.IoFuture;
 
 /**
@@ -105,10 +127,15 @@ import org.xnio.IoFuture;
  *
  * @author <a href="mailto:darran.lofthouse@jboss.com">Darran Lofthouse</a>
  */
-class ClientConnection extends ClientCommon implements VersionedConnection {
+class ClientConnection extends ClientCommon implements VersionedConnection, NotificationListenerReplay {
 
     private static final Logger log = Logger.getLogger(ClientConnection.class);
 
+    private static final int DEFAULT_HEARTBEAT_INTERVAL = 10;
+    private static final int DEFAULT_HEARTBEAT_MAX_MISSED = 3;
+    private static final int DEFAULT_FETCH_SIZE = 100;
+    private static final int DEFAULT_FETCH_TIMEOUT = 10000;
+
     private final Channel channel;
     // Registry of handlers for the incoming messages.
     private final Map<Byte, Common.MessageHandler> handlerRegistry;
@@ -117,21 +144,60 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
     private TheConnection mbeanServerConnection;
     private final ClientRequestManager clientRequestManager;
     private final ClientExecutorManager clientExecutorManager;
+    private final byte version;
+    private final JMXServiceURL serviceUrl;
+    private final int heartbeatInterval;
+    private final Heartbeat heartbeat;
+    private final boolean fetchNotifications;
+    private final int fetchSize;
+    private final int fetchTimeout;
     private LocalNotificationManager localNotificationManager;
+    private final NotificationPublisher.Subscriptions publisherSubscriptions = new NotificationPublisher.Subscriptions();
 
-    ClientConnection(final Channel channel, final Map<String, ?> environment, final ClientRequestManager clientRequestManager,
-            final ClientExecutorManager clientExecutorManager, final String connectionId) {
+    ClientConnection(final Channel channel, final Map<String, ?> environment, final JMXServiceURL serviceUrl,
+            final ClientRequestManager clientRequestManager, final ClientExecutorManager clientExecutorManager,
+            final String connectionId, final byte version) {
         super(channel, environment);
         this.channel = channel;
+        this.serviceUrl = serviceUrl;
         this.clientRequestManager = clientRequestManager;
         this.clientExecutorManager = clientExecutorManager;
         this.connectionId = connectionId;
+        this.version = version;
+        this.heartbeatInterval = getIntegerValue(HEARTBEAT_INTERVAL, environment, DEFAULT_HEARTBEAT_INTERVAL);
+        this.heartbeat = new Heartbeat(new HeartbeatPeer(), getIntegerValue(HEARTBEAT_MAX_MISSED, environment,
+                DEFAULT_HEARTBEAT_MAX_MISSED));
+        this.fetchNotifications = VersionThree.isVersionThree(version) && getBooleanValue(NOTIFICATION_FETCH, environment);
+        this.fetchSize = Math.max(getIntegerValue(NOTIFICATION_FETCH_SIZE, environment, DEFAULT_FETCH_SIZE), 1);
+        this.fetchTimeout = Math.min(getIntegerValue(NOTIFICATION_FETCH_TIMEOUT, environment, DEFAULT_FETCH_TIMEOUT),
+                timeoutSeconds * 500);
         handlerRegistry = createHandlerRegistry();
     }
 
+    private static int getIntegerValue(final String property, final Map<String, ?> environment, final int defaultValue) {
+        Integer value = environment == null ? null : getInteger(environment.get(property));
+        if (value == null) {
+            value = Integer.getInteger(property, defaultValue);
+        }
+
+        return value;
+    }
+
+    private static boolean getBooleanValue(final String property, final Map<String, ?> environment) {
+        Object value = environment == null ? null : environment.get(property);
+        if (value == null) {
+            return Boolean.getBoolean(property);
+        }
+
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+
     private Map<Byte, Common.MessageHandler> createHandlerRegistry() {
         Map<Byte, Common.MessageHandler> registry = new HashMap<Byte, Common.MessageHandler>();
         registry.put((byte) (ADD_NOTIFICATION_LISTENER ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
+        registry.put((byte) (ADD_NOTIFICATION_LISTENERS ^ RESPONSE_MASK), new MarshalledResponseHandler<Object[]>(OBJECT_ARRAY));
+        registry.put((byte) (CREDITED_NOTIFICATION_LISTENER ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
+        registry.put((byte) (PATTERN_NOTIFICATION_LISTENER ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
         registry.put((byte) (CREATE_MBEAN ^ RESPONSE_MASK), new MarshalledResponseHandler<ObjectInstance>(OBJECT_INSTANCE));
         registry.put((byte) (GET_ATTRIBUTE ^ RESPONSE_MASK), new MarshalledResponseHandler<Object>(OBJECT));
         registry.put((byte) (GET_ATTRIBUTES ^ RESPONSE_MASK), new MarshalledResponseHandler<AttributeList>(ATTRIBUTE_LIST));
@@ -152,6 +218,9 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
         registry.put((byte) (SET_ATTRIBUTES ^ RESPONSE_MASK), new MarshalledResponseHandler<AttributeList>(ATTRIBUTE_LIST));
         registry.put((byte) (UNREGISTER_MBEAN ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
 
+        registry.put((byte) (PING ^ RESPONSE_MASK), new PongHandler());
+        registry.put((byte) (FETCH_NOTIFICATIONS ^ RESPONSE_MASK), new FetchedNotificationsResponseHandler());
+
         registry.put(SEND_NOTIFICATION, new NotificationHandler());
 
         return Collections.unmodifiableMap(registry);
@@ -160,7 +229,44 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
     void start() {
         mbeanServerConnection = new TheConnection();
         localNotificationManager = new LocalNotificationManager();
+        channel.addCloseHandler(new CloseHandler<Channel>() {
+
+            @Override
+            public void handleClose(Channel closed, IOException exception) {
+                publisherSubscriptions.close(exception != null ? exception : new IOException("Connection closed"));
+            }
+        });
+        if (VersionThree.isVersionThree(version)) {
+            clientRequestManager.setExpiryListener(new ClientRequestManager.ExpiryListener() {
+
+                @Override
+                public void requestExpired(final int correlationId, final byte messageType) {
+                    // Called by the timer so the cancel is sent using the executor.
+                    clientExecutorManager.execute(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            cancelRequest(correlationId);
+                        }
+                    });
+                }
+            });
+            if (heartbeatInterval > 0) {
+                channel.addCloseHandler(new CloseHandler<Channel>() {
+
+                    @Override
+                    public void handleClose(Channel closed, IOException exception) {
+                        heartbeat.stop();
+                    }
+                });
+                heartbeat.start(heartbeatInterval, TimeUnit.SECONDS);
+            }
+        }
         channel.receiveMessage(new MessageReceiver());
+        if (fetchNotifications) {
+            // The first fetch switches the server to holding notifications until they are fetched.
+            fetchNotifications();
+        }
     }
 
     @Override
@@ -173,6 +279,111 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
         return clientRequestManager;
     }
 
+    /**
+     * Release the correlation ID of a completed request, from version three if no response has been received the server is
+     * asked to cancel the request as nothing is waiting for the response any longer.
+     */
+    private void releaseCorrelationId(final int correlationId) {
+        VersionedIoFuture<?> future = clientRequestManager.releaseCorrelationId(correlationId);
+        if (future != null && future.getStatus() == IoFuture.Status.WAITING && VersionThree.isVersionThree(version)) {
+            cancelRequest(correlationId);
+        }
+    }
+
+    /**
+     * Fetch the notifications queued by the server, once the response is received the notifications are delivered and the
+     * next fetch is sent so there is always a single fetch outstanding.
+     */
+    private void fetchNotifications() {
+        final VersionedIoFuture<TypeExceptionHolder<List<FetchedNotification>>> future = new VersionedIoFuture<TypeExceptionHolder<List<FetchedNotification>>>();
+        final int correlationId = clientRequestManager.reserveNextCorrelationId(future, FETCH_NOTIFICATIONS);
+        future.addNotifier(new IoFuture.HandlingNotifier<TypeExceptionHolder<List<FetchedNotification>>, Void>() {
+
+            @Override
+            public void handleDone(TypeExceptionHolder<List<FetchedNotification>> response, Void attachment) {
+                releaseCorrelationId(correlationId);
+                if (response.e != null) {
+                    log.warnf(response.e, "Unable to fetch notifications, notifications will no longer be received.");
+                    return;
+                }
+                for (FetchedNotification current : response.value) {
+                    localNotificationManager.notify(current.listenerIds, current.notification);
+                }
+                fetchNotifications();
+            }
+
+            @Override
+            public void handleFailed(IOException exception, Void attachment) {
+                releaseCorrelationId(correlationId);
+                if (exception.getCause() instanceof TimeoutException) {
+                    fetchNotifications();
+                } else {
+                    log.debugf(exception, "Notification fetching ended.");
+                }
+            }
+
+        }, null);
+
+        try {
+            write(new MessageWriter() {
+
+                @Override
+                public void write(DataOutput output) throws IOException {
+                    output.writeByte(FETCH_NOTIFICATIONS);
+                    output.writeInt(correlationId);
+                    output.writeByte(INTEGER);
+                    output.writeInt(fetchSize);
+                    output.writeByte(INTEGER);
+                    output.writeInt(fetchTimeout);
+                }
+            });
+
+            log.tracef("[%d] fetchNotifications - Request Sent", correlationId);
+        } catch (IOException e) {
+            releaseCorrelationId(correlationId);
+            log.debugf(e, "Unable to fetch notifications.");
+        }
+    }
+
+    private void cancelRequest(final int correlationId) {
+        try {
+            write(new MessageWriter() {
+
+                @Override
+                public void write(DataOutput output) throws IOException {
+                    output.writeByte(CANCEL);
+                    output.writeInt(correlationId);
+                }
+            });
+
+            log.tracef("[%d] cancel - Request Sent", correlationId);
+        } catch (IOException e) {
+            log.debugf(e, "[%d] Unable to cancel request", correlationId);
+        }
+    }
+
+    private void grantCredits(final int listenerId, final int credits) {
+        try {
+            write(new MessageWriter() {
+
+                @Override
+                public void write(DataOutput output) throws IOException {
+                    output.writeByte(NOTIFICATION_CREDITS);
+                    output.writeInt(0x00);
+
+                    output.writeByte(INTEGER);
+                    output.writeInt(listenerId);
+                    output.writeByte(INTEGER);
+                    output.writeInt(credits);
+                }
+            });
+
+            log.tracef("Granted %d credits to listener %d", credits, listenerId);
+        } catch (IOException e) {
+            log.debugf(e, "Unable to grant credits to listener %d", listenerId);
+        }
+    }
+
     @Override
     protected ClientExecutorManager getClientExecutorManager() {
         return clientExecutorManager;
@@ -196,54 +407,273 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
     }
 
     public void close() {
+        heartbeat.stop();
         clientExecutorManager.close();
     }
 
+    @Override
+    public boolean replayNotificationListeners(final VersionedConnection previous) throws IOException {
+        if (previous instanceof ClientConnection == false) {
+            return false;
+        }
+
+        List<NotificationListenerRegistry.Association> associations = ((ClientConnection) previous).localNotificationManager
+                .getAssociations();
+        if (VersionThree.isVersionThree(version)) {
+            replayNotificationListenersBulk(associations);
+            return true;
+        }
+
+        // All of the registrations are sent before waiting for any of the responses.
+        int[] notificationIds = new int[associations.size()];
+        int[] correlationIds = new int[associations.size()];
+        List<VersionedIoFuture<TypeExceptionHolder<Void>>> futures = new ArrayList<VersionedIoFuture<TypeExceptionHolder<Void>>>(
+                associations.size());
+        int sent = 0;
+        try {
+            for (NotificationListenerRegistry.Association current : associations) {
+                int notificationId = localNotificationManager.associate(current.target, current.listener, current.filter,
+                        current.handBack);
+                VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
+                int correlationId = clientRequestManager.reserveNextCorrelationId(future,
+                        addNotificationListenerType(current.target));
+                notificationIds[sent] = notificationId;
+                correlationIds[sent] = correlationId;
+                futures.add(future);
+                sent++;
+
+                writeAddNotificationListener(correlationId, addNotificationListenerType(current.target), current.target,
+                        notificationId, current.filter);
+            }
+
+            int replayed = 0;
+            for (int i = 0; i < sent; i++) {
+                VersionedIoFuture<TypeExceptionHolder<Void>> future = futures.get(i);
+                IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
+                if (result == IoFuture.Status.DONE && future.get().e == null) {
+                    replayed++;
+                } else {
+                    // Most likely the MBean is no longer registered, the listener is dropped.
+                    log.debugf("Unable to replay notification listener for '%s', status=%s", associations.get(i).target,
+                            result);
+                    localNotificationManager.cancel(notificationIds[i]);
+                }
+            }
+            log.debugf("Replayed %d of %d notification listeners", replayed, associations.size());
+        } catch (IOException e) {
+            for (int i = 0; i < sent; i++) {
+                localNotificationManager.cancel(notificationIds[i]);
+            }
+            throw e;
+        } finally {
+            for (int i = 0; i < sent; i++) {
+                releaseCorrelationId(correlationIds[i]);
+            }
+        }
+
+        return true;
+    }
+
     /**
-     * The local management of notifications.
+     * From version three all of the listeners are replayed using a single addNotificationListeners request.
      */
-    private class LocalNotificationManager {
+    private void replayNotificationListenersBulk(final List<NotificationListenerRegistry.Association> associations)
+            throws IOException {
+        final int count = associations.size();
+        if (count == 0) {
+            return;
+        }
 
-        private int nextNotificationId = 1;
+        ObjectName[] names = new ObjectName[count];
+        NotificationFilter[] filters = new NotificationFilter[count];
+        int[] notificationIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            NotificationListenerRegistry.Association current = associations.get(i);
+            names[i] = current.target;
+            filters[i] = current.filter;
+            notificationIds[i] = localNotificationManager.associate(current.target, current.listener, current.filter,
+                    current.handBack);
+        }
 
-        private Map<Integer, Association> listeners = new HashMap<Integer, ClientConnection.LocalNotificationManager.Association>();
+        boolean complete = false;
+        VersionedIoFuture<TypeExceptionHolder<Object[]>> future = new VersionedIoFuture<TypeExceptionHolder<Object[]>>();
+        final int correlationId = clientRequestManager.reserveNextCorrelationId(future, ADD_NOTIFICATION_LISTENERS);
+        try {
+            writeAddNotificationListeners(correlationId, names, notificationIds, filters);
+
+            IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
+            switch (result) {
+                case FAILED:
+                    throw future.getException();
+                case DONE:
+                    TypeExceptionHolder<Object[]> response = future.get();
+                    if (response.e != null) {
+                        throw toIoException(response.e);
+                    }
 
-        private synchronized int getNextNotificationId() {
-            int next = nextNotificationId++;
-            // After the maximum integer start back at the beginning.
-            if (next < 0) {
-                nextNotificationId = 2;
-                next = 1;
+                    Object[] outcomes = response.value;
+                    if (outcomes == null || outcomes.length != count) {
+                        throw new IOException("Unexpected number of outcomes received.");
+                    }
+                    int replayed = 0;
+                    for (int i = 0; i < count; i++) {
+                        if (outcomes[i] == null) {
+                            replayed++;
+                        } else {
+                            // Most likely the MBean is no longer registered, the listener is dropped.
+                            log.debugf((Exception) outcomes[i], "Unable to replay notification listener for '%s'", names[i]);
+                            localNotificationManager.cancel(notificationIds[i]);
+                        }
+                    }
+                    complete = true;
+                    log.debugf("Replayed %d of %d notification listeners", replayed, count);
+                    break;
+                default:
+                    throw new IOException("Unable to replay notification listeners, status=" + result.toString());
+            }
+        } finally {
+            releaseCorrelationId(correlationId);
+            if (complete == false) {
+                for (int current : notificationIds) {
+                    localNotificationManager.cancel(current);
+                }
             }
-            return next;
         }
+    }
+
+    /**
+     * From version three a listener added to an ObjectName pattern is added to every matching MBean by the server, including
+     * MBeans registered later.
+     */
+    private byte addNotificationListenerType(final ObjectName name) {
+        return VersionThree.isVersionThree(version) && name.isPattern() ? PATTERN_NOTIFICATION_LISTENER
+                : ADD_NOTIFICATION_LISTENER;
+    }
+
+    private void writeAddNotificationListener(final int correlationId, final byte messageType, final ObjectName name,
+            final int notificationId, final NotificationFilter filter) throws IOException {
+        write(new MessageWriter() {
 
-        private synchronized int associate(ObjectName target, NotificationListener listener, NotificationFilter filter,
-                Object handBack) {
-            Integer next = getNextNotificationId();
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(messageType);
+                output.writeInt(correlationId);
 
-            // Not likely but possible to use all IDs and start back at beginning while
-            // old request still in progress.
-            while (listeners.containsKey(next)) {
-                next = getNextNotificationId();
+                output.writeByte(OBJECT_NAME);
+                Marshaller marshaller = prepareForMarshalling(output);
+                marshaller.writeObject(name);
+
+                // This indicates that the target is remote.
+                marshaller.writeByte(INTEGER);
+                marshaller.writeInt(notificationId);
+
+                marshaller.writeByte(NOTIFICATION_FILTER);
+                marshaller.writeObject(filter);
+
+                // The handback is retained locally, from version three no handback is sent for a local listener.
+                if (VersionThree.isVersionThree(version) == false) {
+                    marshaller.writeByte(OBJECT);
+                    marshaller.writeObject(null);
+                }
+
+                marshaller.close();
+            }
+        });
+
+        log.tracef("[%d] addNotificationListener - Request Sent", correlationId);
+    }
+
+    private void writeAddNotificationListeners(final int correlationId, final ObjectName[] names, final int[] notificationIds,
+            final NotificationFilter[] filters) throws IOException {
+        write(new MessageWriter() {
+
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(ADD_NOTIFICATION_LISTENERS);
+                output.writeInt(correlationId);
+
+                output.writeByte(INTEGER);
+                output.writeInt(names.length);
+
+                Marshaller marshaller = prepareForMarshalling(output);
+                for (int i = 0; i < names.length; i++) {
+                    marshaller.writeObject(names[i]);
+                    marshaller.writeInt(notificationIds[i]);
+                    marshaller.writeObject(filters == null ? null : filters[i]);
+                }
+
+                marshaller.close();
             }
+        });
 
-            Association association = new Association();
-            association.target = target;
-            association.listener = listener;
-            association.filter = filter;
-            association.handBack = handBack;
+        log.tracef("[%d] addNotificationListeners - Request Sent", correlationId);
+    }
 
-            listeners.put(next, association);
-            return next;
+    /**
+     * @return The round trip time of the most recent heartbeat in nanoseconds or -1 if no heartbeat has completed.
+     */
+    long getHeartbeatRoundTripNanos() {
+        return heartbeat.getRoundTripNanos();
+    }
+
+    private class HeartbeatPeer implements Heartbeat.Peer {
+
+        @Override
+        public void ping() {
+            // Writing can block if the peer is not reading so the ping is written by the executor of this connection and
+            // not by the scheduler shared by all connections.
+            try {
+                clientExecutorManager.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        try {
+                            write(new MessageWriter() {
+
+                                @Override
+                                public void write(DataOutput output) throws IOException {
+                                    output.writeByte(PING);
+                                    output.writeInt(0x00);
+                                }
+                            });
+                        } catch (IOException e) {
+                            // A failure to write will also be reported to the receiver of the channel.
+                            log.debug("Unable to send ping", e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("Unable to send ping, connection closing", e);
+            }
         }
 
-        private synchronized void cancel(int id) {
-            listeners.remove(id);
+        @Override
+        public void failed(IOException reason) {
+            log.debugf(reason, "Heartbeat failed, closing channel");
+            // Fail the pending requests now rather than waiting for the channel to report the failure.
+            clientRequestManager.cancelAllRequests(reason);
+            channel.closeAsync();
         }
 
-        private synchronized Association get(int id) {
-            return listeners.get(id);
+    }
+
+    /**
+     * The local management of notifications.
+     */
+    private class LocalNotificationManager {
+
+        private final NotificationListenerRegistry registry = new NotificationListenerRegistry();
+
+        private int associate(ObjectName target, NotificationListener listener, NotificationFilter filter, Object handBack) {
+            return registry.associate(target, listener, filter, handBack);
+        }
+
+        private void cancel(int id) {
+            registry.cancel(id);
+        }
+
+        private List<NotificationListenerRegistry.Association> getAssociations() {
+            return registry.getAssociations();
         }
 
         /*
@@ -251,8 +681,23 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
          * there is no point in creating a new Runnable and passing it to the executor to process the Notification.
          */
 
-        private void notify(int id, Notification n, Object handback) {
-            Association association = get(id);
+        private void notify(int[] ids, Notification n) {
+            if (ids.length == 1) {
+                notify(ids[0], n);
+                return;
+            }
+            for (int current : ids) {
+                try {
+                    notify(current, n);
+                } catch (RuntimeException e) {
+                    // Don't let one failing listener prevent delivery to the others.
+                    log.warnf(e, "Failure delivering notification to NotificationListener %d", current);
+                }
+            }
+        }
+
+        private void notify(int id, Notification n) {
+            NotificationListenerRegistry.Association association = registry.get(id);
             if (association != null) {
 
                 association.listener.handleNotification(n, association.handBack);
@@ -269,47 +714,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
             }
         }
 
-        private synchronized int[] matchToRemove(ObjectName name, NotificationListener listener) {
-            List<Integer> toRemove = new ArrayList<Integer>();
-            for (Integer current : listeners.keySet()) {
-                Association association = listeners.get(current);
-                if ((name == association.target || name.equals(association.target) && listener == association.listener)) {
-                    toRemove.add(current);
-                }
-            }
-
-            int[] response = new int[toRemove.size()];
-            for (int i = 0; i < response.length; i++) {
-                response[i] = toRemove.get(i);
-                listeners.remove(response[i]);
-            }
-            return response;
+        private int[] matchToRemove(ObjectName name, NotificationListener listener) {
+            return registry.matchToRemove(name, listener);
         }
 
-        private synchronized int[] matchToRemove(ObjectName name, NotificationListener listener, NotificationFilter filter,
+        private int[] matchToRemove(ObjectName name, NotificationListener listener, NotificationFilter filter,
                 Object handback) {
-            List<Integer> toRemove = new ArrayList<Integer>();
-            for (Integer current : listeners.keySet()) {
-                Association association = listeners.get(current);
-                if ((name == association.target || name.equals(association.target)) && listener == association.listener
-                        && filter == association.filter && handback == association.handBack) {
-                    toRemove.add(current);
-                }
-            }
-
-            int[] response = new int[toRemove.size()];
-            for (int i = 0; i < response.length; i++) {
-                response[i] = toRemove.get(i);
-                listeners.remove(response[i]);
-            }
-            return response;
-        }
-
-        private class Association {
-            private ObjectName target;
-            private NotificationListener listener;
-            private NotificationFilter filter;
-            private Object handBack;
+            return registry.matchToRemove(name, listener, filter, handback);
         }
 
     }
@@ -320,6 +731,15 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
             return channel.getConnection();
         }
 
+        public JMXServiceURL getServiceURL() {
+            return serviceUrl;
+        }
+
+        @Override
+        public Map<String, Long> getTimedOutRequests() {
+            return clientRequestManager.getTimedOutRequestsByName();
+        }
+
         // TODO - Consider a proxy so the specific methods only need to marshall their specific
         // portion of the protocol.
 
@@ -327,7 +747,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 InstanceAlreadyExistsException, MBeanRegistrationException, MBeanException, NotCompliantMBeanException,
                 IOException {
             VersionedIoFuture<TypeExceptionHolder<ObjectInstance>> future = new VersionedIoFuture<TypeExceptionHolder<ObjectInstance>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, CREATE_MBEAN);
             try {
                 write(new MessageWriter() {
                     @Override
@@ -372,7 +792,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain createMBean, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
@@ -380,7 +800,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 throws ReflectionException, InstanceAlreadyExistsException, MBeanRegistrationException, MBeanException,
                 NotCompliantMBeanException, InstanceNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<ObjectInstance>> future = new VersionedIoFuture<TypeExceptionHolder<ObjectInstance>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, CREATE_MBEAN);
             try {
                 write(new MessageWriter() {
 
@@ -430,7 +850,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
@@ -438,7 +858,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 final String[] signature) throws ReflectionException, InstanceAlreadyExistsException,
                 MBeanRegistrationException, MBeanException, NotCompliantMBeanException, IOException {
             VersionedIoFuture<TypeExceptionHolder<ObjectInstance>> future = new VersionedIoFuture<TypeExceptionHolder<ObjectInstance>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, CREATE_MBEAN);
             try {
                 write(new MessageWriter() {
 
@@ -495,7 +915,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke createMBean, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
@@ -503,7 +923,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 final Object[] params, final String[] signature) throws ReflectionException, InstanceAlreadyExistsException,
                 MBeanRegistrationException, MBeanException, NotCompliantMBeanException, InstanceNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<ObjectInstance>> future = new VersionedIoFuture<TypeExceptionHolder<ObjectInstance>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, CREATE_MBEAN);
             try {
                 write(new MessageWriter() {
 
@@ -564,14 +984,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke createMBean, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public void unregisterMBean(final ObjectName name) throws InstanceNotFoundException, MBeanRegistrationException,
                 IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, UNREGISTER_MBEAN);
             try {
                 write(new MessageWriter() {
 
@@ -608,13 +1028,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke unregisterMBean, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public ObjectInstance getObjectInstance(final ObjectName name) throws InstanceNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<ObjectInstance>> future = new VersionedIoFuture<TypeExceptionHolder<ObjectInstance>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_OBJECT_INSTANCE);
             try {
                 write(new MessageWriter() {
 
@@ -649,13 +1069,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke getObjectInstance, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) throws IOException {
             VersionedIoFuture<TypeExceptionHolder<Set<ObjectInstance>>> future = new VersionedIoFuture<TypeExceptionHolder<Set<ObjectInstance>>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, QUERY_MBEANS);
             try {
                 write(new MessageWriter() {
 
@@ -692,13 +1112,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke queryMBeans, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) throws IOException {
             VersionedIoFuture<TypeExceptionHolder<Set<ObjectName>>> future = new VersionedIoFuture<TypeExceptionHolder<Set<ObjectName>>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, QUERY_NAMES);
             try {
                 write(new MessageWriter() {
 
@@ -735,13 +1155,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public boolean isRegistered(final ObjectName name) throws IOException {
             VersionedIoFuture<TypeExceptionHolder<Boolean>> future = new VersionedIoFuture<TypeExceptionHolder<Boolean>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, IS_REGISTERED);
             try {
                 write(new MessageWriter() {
 
@@ -775,13 +1195,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public Integer getMBeanCount() throws IOException {
             VersionedIoFuture<TypeExceptionHolder<Integer>> future = new VersionedIoFuture<TypeExceptionHolder<Integer>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_MBEAN_COUNT);
             try {
                 write(new MessageWriter() {
                     @Override
@@ -808,14 +1228,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain MBeanCount, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public Object getAttribute(final ObjectName name, final String attribute) throws MBeanException,
                 AttributeNotFoundException, InstanceNotFoundException, ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Object>> future = new VersionedIoFuture<TypeExceptionHolder<Object>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_ATTRIBUTE);
             try {
                 write(new MessageWriter() {
 
@@ -856,14 +1276,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public AttributeList getAttributes(final ObjectName name, final String[] attributes) throws InstanceNotFoundException,
                 ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<AttributeList>> future = new VersionedIoFuture<TypeExceptionHolder<AttributeList>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_ATTRIBUTES);
             try {
                 write(new MessageWriter() {
 
@@ -905,14 +1325,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke getAttributes, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public void setAttribute(final ObjectName name, final Attribute attribute) throws InstanceNotFoundException,
                 AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, SET_ATTRIBUTE);
             try {
                 write(new MessageWriter() {
 
@@ -956,14 +1376,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke setAttribute, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public AttributeList setAttributes(final ObjectName name, final AttributeList attributes)
                 throws InstanceNotFoundException, ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<AttributeList>> future = new VersionedIoFuture<TypeExceptionHolder<AttributeList>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, SET_ATTRIBUTES);
             try {
                 write(new MessageWriter() {
 
@@ -1002,14 +1422,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke setAttributes, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public Object invoke(final ObjectName name, final String operationName, final Object[] params, final String[] signature)
                 throws InstanceNotFoundException, MBeanException, ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Object>> future = new VersionedIoFuture<TypeExceptionHolder<Object>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, INVOKE);
             try {
                 write(new MessageWriter() {
 
@@ -1069,13 +1489,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke invoke(), status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public String getDefaultDomain() throws IOException {
             VersionedIoFuture<TypeExceptionHolder<String>> future = new VersionedIoFuture<TypeExceptionHolder<String>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_DEFAULT_DOMAIN);
             try {
                 write(new MessageWriter() {
 
@@ -1103,13 +1523,13 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain DefaultDomain, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public String[] getDomains() throws IOException {
             VersionedIoFuture<TypeExceptionHolder<String[]>> future = new VersionedIoFuture<TypeExceptionHolder<String[]>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_DOMAINS);
             try {
                 write(new MessageWriter() {
 
@@ -1137,43 +1557,28 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain Domains, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public void addNotificationListener(final ObjectName name, NotificationListener listener,
                 final NotificationFilter filter, final Object handback) throws InstanceNotFoundException, IOException {
+            addNotificationListener(addNotificationListenerType(name), name, listener, filter, handback);
+        }
+
+        /**
+         * Add the listener using either addNotificationListener or one of its version three alternatives.
+         *
+         * @return The ID allocated to the listener.
+         */
+        private int addNotificationListener(final byte messageType, final ObjectName name, NotificationListener listener,
+                final NotificationFilter filter, final Object handback) throws InstanceNotFoundException, IOException {
             final int notificationId = localNotificationManager.associate(name, listener, filter, handback);
 
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, messageType);
             try {
-                write(new MessageWriter() {
-
-                    @Override
-                    public void write(DataOutput output) throws IOException {
-                        output.writeByte(ADD_NOTIFICATION_LISTENER);
-                        output.writeInt(correlationId);
-
-                        output.writeByte(OBJECT_NAME);
-                        Marshaller marshaller = prepareForMarshalling(output);
-                        marshaller.writeObject(name);
-
-                        // This indicates that the target is remote.
-                        marshaller.writeByte(INTEGER);
-                        marshaller.writeInt(notificationId);
-
-                        marshaller.writeByte(NOTIFICATION_FILTER);
-                        marshaller.writeObject(filter);
-
-                        marshaller.writeByte(OBJECT);
-                        marshaller.writeObject(null);
-
-                        marshaller.close();
-                    }
-                });
-
-                log.tracef("[%d] addNotificationListener - Request Sent", correlationId);
+                writeAddNotificationListener(correlationId, messageType, name, notificationId, filter);
 
                 IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
                 switch (result) {
@@ -1184,7 +1589,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         TypeExceptionHolder<Void> response = future.get();
 
                         if (response.e == null) {
-                            return;
+                            return notificationId;
                         }
 
                         localNotificationManager.cancel(notificationId);
@@ -1196,14 +1601,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke addNotificationListener, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public void addNotificationListener(final ObjectName name, final ObjectName listener, final NotificationFilter filter,
                 final Object handback) throws InstanceNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, ADD_NOTIFICATION_LISTENER);
             try {
                 write(new MessageWriter() {
 
@@ -1249,14 +1654,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke addNotificationListener, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public void removeNotificationListener(final ObjectName name, final ObjectName listener)
                 throws InstanceNotFoundException, ListenerNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, REMOVE_NOTIFICATION_LISTENER);
             try {
                 write(new MessageWriter() {
 
@@ -1299,7 +1704,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke removeNotificationListener, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
@@ -1307,7 +1712,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 final NotificationFilter filter, final Object handback) throws InstanceNotFoundException,
                 ListenerNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, REMOVE_NOTIFICATION_LISTENER);
             try {
                 write(new MessageWriter() {
 
@@ -1356,14 +1761,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke removeNotificationListener, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         private void removeNotificationListener(final int[] listenerIds) throws InstanceNotFoundException,
                 ListenerNotFoundException, IOException {
             VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, REMOVE_NOTIFICATION_LISTENER);
             try {
                 write(new MessageWriter() {
 
@@ -1404,7 +1809,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to invoke removeNotificationListener, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
 
         }
@@ -1419,10 +1824,208 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
             removeNotificationListener(localNotificationManager.matchToRemove(name, listener, filter, handback));
         }
 
+        public Exception[] addNotificationListeners(ObjectName[] names, NotificationListener[] listeners,
+                NotificationFilter[] filters, Object[] handbacks) throws IOException {
+            checkBulkArguments(names, listeners, filters, handbacks);
+            if (VersionThree.isVersionThree(version)) {
+                return addNotificationListenersBulk(names, listeners, filters, handbacks);
+            }
+
+            Exception[] outcomes = new Exception[names.length];
+            int[] notificationIds = new int[names.length];
+            int added = 0;
+            try {
+                for (int i = 0; i < names.length; i++) {
+                    try {
+                        notificationIds[added] = addNotificationListener(addNotificationListenerType(names[i]), names[i],
+                                listeners[i], filters == null ? null : filters[i], handbacks == null ? null : handbacks[i]);
+                        added++;
+                    } catch (InstanceNotFoundException e) {
+                        outcomes[i] = e;
+                    } catch (JMRuntimeException e) {
+                        outcomes[i] = e;
+                    }
+                }
+            } catch (IOException e) {
+                // None of the listeners are left added if the request could not be completed.
+                if (added > 0) {
+                    int[] toRemove = new int[added];
+                    System.arraycopy(notificationIds, 0, toRemove, 0, added);
+                    for (int current : toRemove) {
+                        localNotificationManager.cancel(current);
+                    }
+                    try {
+                        removeNotificationListener(toRemove);
+                    } catch (Exception re) {
+                        log.debugf(re, "Unable to remove %d added listeners", added);
+                    }
+                }
+                throw e;
+            }
+
+            return outcomes;
+        }
+
+        /**
+         * From version three all of the listeners are added using a single addNotificationListeners request.
+         *
+         * If the request times out the server may still add the listeners so their removal is requested, until the removal is
+         * processed any notifications received for them are discarded as they are no longer associated with a local listener.
+         */
+        private Exception[] addNotificationListenersBulk(final ObjectName[] names, final NotificationListener[] listeners,
+                final NotificationFilter[] filters, final Object[] handbacks) throws IOException {
+            final int[] notificationIds = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                notificationIds[i] = localNotificationManager.associate(names[i], listeners[i],
+                        filters == null ? null : filters[i], handbacks == null ? null : handbacks[i]);
+            }
+
+            boolean complete = false;
+            boolean timedOut = false;
+            VersionedIoFuture<TypeExceptionHolder<Object[]>> future = new VersionedIoFuture<TypeExceptionHolder<Object[]>>();
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, ADD_NOTIFICATION_LISTENERS);
+            try {
+                writeAddNotificationListeners(correlationId, names, notificationIds, filters);
+
+                IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
+                switch (result) {
+                    case FAILED:
+                        timedOut = future.getException().getCause() instanceof TimeoutException;
+                        throw future.getException();
+                    case DONE:
+                        TypeExceptionHolder<Object[]> response = future.get();
+                        if (response.e != null) {
+                            jmRuntimeException(response.e);
+                            throw toIoException(response.e);
+                        }
+
+                        Object[] outcomes = response.value;
+                        if (outcomes == null || outcomes.length != names.length) {
+                            throw new IOException("Unexpected number of outcomes received.");
+                        }
+                        Exception[] exceptions = new Exception[names.length];
+                        for (int i = 0; i < names.length; i++) {
+                            if (outcomes[i] != null) {
+                                localNotificationManager.cancel(notificationIds[i]);
+                                exceptions[i] = (Exception) outcomes[i];
+                            }
+                        }
+                        complete = true;
+
+                        return exceptions;
+                    default:
+                        timedOut = true;
+                        throw new IOException("Unable to invoke addNotificationListeners, status=" + result.toString());
+                }
+            } finally {
+                releaseCorrelationId(correlationId);
+                if (complete == false) {
+                    for (int current : notificationIds) {
+                        localNotificationManager.cancel(current);
+                    }
+                    if (timedOut) {
+                        removeInBackground(notificationIds);
+                    }
+                }
+            }
+        }
+
+        private void removeInBackground(final int[] listenerIds) {
+            clientExecutorManager.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        removeNotificationListener(listenerIds);
+                    } catch (Exception e) {
+                        log.debugf(e, "Unable to remove %d listeners after addNotificationListeners timed out",
+                                listenerIds.length);
+                    }
+                }
+            });
+        }
+
+        public Flow.Publisher<Notification> getNotificationPublisher(final ObjectName name, final NotificationFilter filter) {
+            return new NotificationPublisher(name, filter, new NotificationPublisher.Source() {
+
+                @Override
+                public int addListener(ObjectName name, NotificationListener listener, NotificationFilter filter)
+                        throws InstanceNotFoundException, IOException {
+                    if (VersionThree.isVersionThree(version)) {
+                        return addNotificationListener(CREDITED_NOTIFICATION_LISTENER, name, listener, filter, null);
+                    }
+
+                    addNotificationListener(name, listener, filter, null);
+                    return -1;
+                }
+
+                @Override
+                public void grantCredits(int listenerId, int credits) {
+                    ClientConnection.this.grantCredits(listenerId, credits);
+                }
+
+                @Override
+                public void removeListener(final ObjectName name, final NotificationListener listener) {
+                    clientExecutorManager.execute(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            try {
+                                removeNotificationListener(name, listener);
+                            } catch (Exception e) {
+                                log.debugf(e, "Unable to remove publisher listener from %s", name);
+                            }
+                        }
+                    });
+                }
+            }, publisherSubscriptions);
+        }
+
+        public Exception[] removeNotificationListeners(ObjectName[] names, NotificationListener[] listeners)
+                throws IOException {
+            checkBulkArguments(names, listeners, null, null);
+
+            Exception[] outcomes = new Exception[names.length];
+            int[][] matched = new int[names.length][];
+            int total = 0;
+            for (int i = 0; i < names.length; i++) {
+                matched[i] = localNotificationManager.matchToRemove(names[i], listeners[i]);
+                if (matched[i].length == 0) {
+                    outcomes[i] = new ListenerNotFoundException("Listener not found");
+                }
+                total += matched[i].length;
+            }
+
+            if (total > 0) {
+                // All of the matched listeners are removed from the server using a single request.
+                int[] toRemove = new int[total];
+                int position = 0;
+                for (int[] current : matched) {
+                    System.arraycopy(current, 0, toRemove, position, current.length);
+                    position += current.length;
+                }
+                try {
+                    removeNotificationListener(toRemove);
+                } catch (JMException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            return outcomes;
+        }
+
+        private void checkBulkArguments(ObjectName[] names, NotificationListener[] listeners, NotificationFilter[] filters,
+                Object[] handbacks) {
+            if (listeners.length != names.length || (filters != null && filters.length != names.length)
+                    || (handbacks != null && handbacks.length != names.length)) {
+                throw new IllegalArgumentException("An entry is required for each ObjectName");
+            }
+        }
+
         public MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException, IntrospectionException,
                 ReflectionException, IOException {
             VersionedIoFuture<TypeExceptionHolder<MBeanInfo>> future = new VersionedIoFuture<TypeExceptionHolder<MBeanInfo>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, GET_MBEAN_INFO);
             try {
                 write(new MessageWriter() {
 
@@ -1459,14 +2062,14 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
         public boolean isInstanceOf(final ObjectName name, final String className) throws InstanceNotFoundException,
                 IOException {
             VersionedIoFuture<TypeExceptionHolder<Boolean>> future = new VersionedIoFuture<TypeExceptionHolder<Boolean>>();
-            final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+            final int correlationId = clientRequestManager.reserveNextCorrelationId(future, INSTANCE_OF);
             try {
                 write(new MessageWriter() {
 
@@ -1502,7 +2105,7 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                         throw new IOException("Unable to obtain isRegistered, status=" + result.toString());
                 }
             } finally {
-                clientRequestManager.releaseCorrelationId(correlationId);
+                releaseCorrelationId(correlationId);
             }
         }
 
@@ -1621,6 +2224,61 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
 
     }
 
+    private class FetchedNotificationsResponseHandler extends BaseResponseHandler<List<FetchedNotification>> {
+
+        @Override
+        protected byte getExpectedType() {
+            return NOTIFICATION_ARRAY;
+        }
+
+        @Override
+        protected List<FetchedNotification> readValue(DataInput input) throws IOException {
+            int count = input.readInt();
+            List<FetchedNotification> response = new ArrayList<FetchedNotification>(count);
+            if (count > 0) {
+                Unmarshaller unmarshaller = prepareForUnMarshalling(input);
+                try {
+                    for (int i = 0; i < count; i++) {
+                        int[] listenerIds = new int[unmarshaller.readInt()];
+                        for (int j = 0; j < listenerIds.length; j++) {
+                            listenerIds[j] = unmarshaller.readInt();
+                        }
+                        Notification notification = unmarshaller.readObject(Notification.class);
+                        response.add(new FetchedNotification(listenerIds, notification));
+                    }
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            return response;
+        }
+
+    }
+
+    private static class FetchedNotification {
+
+        private final int[] listenerIds;
+        private final Notification notification;
+
+        private FetchedNotification(final int[] listenerIds, final Notification notification) {
+            this.listenerIds = listenerIds;
+            this.notification = notification;
+        }
+
+    }
+
+    private class PongHandler implements Common.MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            log.trace("Pong");
+            input.readByte(); // The outcome, always SUCCESS
+            heartbeat.pongReceived();
+        }
+
+    }
+
     private class NotificationHandler implements Common.MessageHandler {
 
         /*
@@ -1632,11 +2290,19 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
         public void handle(DataInput input, int correlationId) throws IOException {
             log.trace("Notification");
 
+            // From version three a notification for multiple listeners is sent once with all of their IDs.
+            int[] listenerIds;
             byte paramType = input.readByte();
-            if (paramType != INTEGER) {
+            if (paramType == INTEGER) {
+                listenerIds = new int[] { input.readInt() };
+            } else if (paramType == INTEGER_ARRAY) {
+                listenerIds = new int[input.readInt()];
+                for (int i = 0; i < listenerIds.length; i++) {
+                    listenerIds[i] = input.readInt();
+                }
+            } else {
                 throw new IOException("Unexpected paramType");
             }
-            int listenerId = input.readInt();
 
             paramType = input.readByte();
             if (paramType != NOTIFICATION) {
@@ -1647,13 +2313,16 @@ class ClientConnection extends ClientCommon implements VersionedConnection {
                 Unmarshaller unmarshaller = prepareForUnMarshalling(input);
                 Notification notification = unmarshaller.readObject(Notification.class);
 
-                paramType = unmarshaller.readByte();
-                if (paramType != OBJECT) {
-                    throw new IOException("Unexpected paramType");
+                // Before version three the handback is also sent, the local handback is used instead.
+                if (VersionThree.isVersionThree(version) == false) {
+                    paramType = unmarshaller.readByte();
+                    if (paramType != OBJECT) {
+                        throw new IOException("Unexpected paramType");
+                    }
+                    unmarshaller.readObject();
                 }
-                Object handBack = unmarshaller.readObject();
 
-                localNotificationManager.notify(listenerId, notification, handBack);
+                localNotificationManager.notify(listenerIds, notification);
             } catch (ClassNotFoundException cnfe) {
                 throw new IOException(cnfe);
             }
@@ -24,7 +24,10 @@ import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -52,6 +55,22 @@ class ClientExecutorManager {
         });
     }
 
+    /**
+     * A single thread shared by all connections for their periodic tasks.
+     */
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(THREAD_GROUP, r, REMOTING_JMX + " scheduler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
     ClientExecutorManager(final Map<String, ?> environment) {
         if (environment != null && environment.containsKey(Executor.class.getName())) {
             executor = (Executor) environment.get(Executor.class.getName());
@@ -70,6 +89,13 @@ class ClientExecutorManager {
         executor.execute(runnable);
     }
 
+    /**
+     * Schedule a periodic task on the shared scheduler, tasks run on the scheduler must be short and must not block.
+     */
+    static ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final long delay, final TimeUnit unit) {
+        return SCHEDULER.scheduleWithFixedDelay(task, delay, delay, unit);
+    }
+
     void close() {
         if (manageExecutor && executor instanceof ExecutorService) {
             ((ExecutorService) executor).shutdown();
@@ -18,23 +18,116 @@
 
 package org.jboss.remotingjmx.protocol.v2;
 
+import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENERS;
+import static org.jboss.remotingjmx.protocol.v2.Constants.BEGIN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CREATE_MBEAN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CREDITED_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.FETCH_NOTIFICATIONS;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTE;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTES;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_DEFAULT_DOMAIN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_DOMAINS;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_MBEAN_COUNT;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_MBEAN_INFO;
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_OBJECT_INSTANCE;
+import static org.jboss.remotingjmx.protocol.v2.Constants.INSTANCE_OF;
+import static org.jboss.remotingjmx.protocol.v2.Constants.INVOKE;
+import static org.jboss.remotingjmx.protocol.v2.Constants.IS_REGISTERED;
+import static org.jboss.remotingjmx.protocol.v2.Constants.PATTERN_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_MBEANS;
+import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_NAMES;
+import static org.jboss.remotingjmx.protocol.v2.Constants.REMOVE_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_ATTRIBUTE;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_ATTRIBUTES;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIR;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIRS;
+import static org.jboss.remotingjmx.protocol.v2.Constants.UNREGISTER_MBEAN;
+
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.logging.Logger;
+import org.xnio.IoFuture;
 
 /**
  * Manager responsible for maintaining the correlation IDs and pending requests.
  *
+ * Each pending request is also scheduled in a {@link TimerWheel}, once the deadline of a request has passed the request is
+ * removed and its future failed even if the caller is not waiting on the future.  The timer only runs whilst requests are
+ * pending.
+ *
  * @author <a href="mailto:darran.lofthouse@jboss.com">Darran Lofthouse</a>
  */
 class ClientRequestManager {
 
+    private static final Logger log = Logger.getLogger(ClientRequestManager.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 512;
+    // The names of the request messages as used in the protocol documentation.
+    private static final Map<Byte, String> MESSAGE_NAMES = createMessageNames();
+
     private int nextCorrelationId = 1;
 
     /**
      * The in-progress requests awaiting a response.
      */
-    private final Map<Integer, VersionedIoFuture> requests = new HashMap<Integer, VersionedIoFuture>();
+    private final Map<Integer, PendingRequest> requests = new HashMap<Integer, PendingRequest>();
+    private final TimerWheel<PendingRequest> timerWheel = new TimerWheel<PendingRequest>(TICK_MILLIS, TimeUnit.MILLISECONDS,
+            WHEEL_SIZE);
+    private final long timeoutMillis;
+    private final AtomicLongArray timedOutRequests = new AtomicLongArray(256);
+    private volatile ExpiryListener expiryListener;
+    private ScheduledFuture<?> ticker;
+    private boolean closed = false;
+
+    /**
+     * @param timeoutSeconds - The timeout to apply to every request.
+     */
+    ClientRequestManager(final int timeoutSeconds) {
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    private static Map<Byte, String> createMessageNames() {
+        Map<Byte, String> names = new HashMap<Byte, String>();
+        names.put(CREATE_MBEAN, "createMBean");
+        names.put(UNREGISTER_MBEAN, "unregisterMBean");
+        names.put(GET_OBJECT_INSTANCE, "getObjectInstance");
+        names.put(QUERY_MBEANS, "queryMBeans");
+        names.put(QUERY_NAMES, "queryNames");
+        names.put(IS_REGISTERED, "isRegistered");
+        names.put(GET_MBEAN_COUNT, "getMBeanCount");
+        names.put(GET_ATTRIBUTE, "getAttribute");
+        names.put(GET_ATTRIBUTES, "getAttributes");
+        names.put(SET_ATTRIBUTE, "setAttribute");
+        names.put(SET_ATTRIBUTES, "setAttributes");
+        names.put(INVOKE, "invoke");
+        names.put(GET_DEFAULT_DOMAIN, "getDefaultDomain");
+        names.put(GET_DOMAINS, "getDomains");
+        names.put(GET_MBEAN_INFO, "getMBeanInfo");
+        names.put(INSTANCE_OF, "instanceOf");
+        names.put(ADD_NOTIFICATION_LISTENER, "addNotificationListener");
+        names.put(REMOVE_NOTIFICATION_LISTENER, "removeNotificationListener");
+        names.put(FETCH_NOTIFICATIONS, "fetchNotifications");
+        names.put(PATTERN_NOTIFICATION_LISTENER, "patternNotificationListener");
+        names.put(ADD_NOTIFICATION_LISTENERS, "addNotificationListeners");
+        names.put(CREDITED_NOTIFICATION_LISTENER, "creditedNotificationListener");
+        names.put(SET_KEY_PAIR, "setKeyPair");
+        names.put(BEGIN, "begin");
+        names.put(SET_KEY_PAIRS, "setKeyPairs");
+
+        return Collections.unmodifiableMap(names);
+    }
 
     /**
      * Get the next correlation ID, returning to the beginning once all integers have been used.
@@ -54,11 +147,14 @@ class ClientRequestManager {
     }
 
     /**
-     * Reserves a correlation ID by taking the next value and ensuring it is stored in the Map.
+     * Reserves a correlation ID by taking the next value and ensuring it is stored in the Map, the request will expire after
+     * the timeout of the connection.
      *
+     * @param future - The future to complete once the response is received.
+     * @param messageType - The type of the request, used for the timeout metrics.
      * @return the next reserved correlation ID
      */
-    synchronized int reserveNextCorrelationId(VersionedIoFuture future) {
+    synchronized int reserveNextCorrelationId(final VersionedIoFuture<?> future, final byte messageType) {
         Integer next = getNextCorrelationId();
 
         // Not likely but possible to use all IDs and start back at beginning while
@@ -66,27 +162,202 @@ class ClientRequestManager {
         while (requests.containsKey(next)) {
             next = getNextCorrelationId();
         }
-        requests.put(next, future);
+        PendingRequest request = new PendingRequest(next, messageType, future,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        requests.put(next, request);
+        timerWheel.schedule(request, timeoutMillis, TimeUnit.MILLISECONDS);
+        if (ticker == null && closed == false) {
+            ticker = ClientExecutorManager.scheduleWithFixedDelay(new Ticker(this), TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
 
         return next;
     }
 
+    @SuppressWarnings("unchecked")
     synchronized <T> VersionedIoFuture<T> getFuture(int correlationId) {
-        // TODO - How to check this?
-        return requests.get(correlationId);
+        PendingRequest request = requests.get(correlationId);
+        return request != null ? (VersionedIoFuture<T>) request.future : null;
     }
 
-    synchronized void releaseCorrelationId(int correlationId) {
-        // TODO - Will maybe move to not removing by default and timeout failed requests.
-        requests.remove(correlationId);
+    /**
+     * Release a correlation ID so it can be used again.
+     *
+     * @return The future the correlation ID was reserved for or null if it was not reserved or the request has already expired.
+     */
+    synchronized VersionedIoFuture<?> releaseCorrelationId(int correlationId) {
+        PendingRequest request = requests.remove(correlationId);
+        if (request == null) {
+            return null;
+        }
+
+        timerWheel.cancel(request);
+        if (request.future.getStatus() == IoFuture.Status.WAITING && System.nanoTime() - request.deadline >= 0) {
+            // The caller gave up waiting before the timer expired the request.
+            timedOutRequests.incrementAndGet(request.messageType & 0xFF);
+        }
+
+        return request.future;
     }
 
     synchronized void cancelAllRequests(final IOException io) {
-        for (VersionedIoFuture current : requests.values()) {
-            current.setException(io);
+        for (PendingRequest current : requests.values()) {
+            timerWheel.cancel(current);
+            current.future.setException(io);
         }
 
         requests.clear();
+        // Nothing further will be received so the timer is no longer required.
+        closed = true;
+        stopTicker();
+    }
+
+    /**
+     * Set the listener to be notified as requests expire.
+     */
+    void setExpiryListener(final ExpiryListener expiryListener) {
+        this.expiryListener = expiryListener;
+    }
+
+    /**
+     * Expire all requests whose deadline has passed.
+     */
+    void expireRequests() {
+        List<PendingRequest> expired = new ArrayList<PendingRequest>();
+        synchronized (this) {
+            timerWheel.expire(expired);
+            for (PendingRequest current : expired) {
+                requests.remove(current.correlationId);
+            }
+            // Started again by the next request, stopping on a tick instead of as each response is received avoids
+            // rescheduling the timer for every request.
+            if (requests.isEmpty()) {
+                stopTicker();
+            }
+        }
+
+        ExpiryListener listener = expiryListener;
+        for (PendingRequest current : expired) {
+            log.tracef("[%d] Request of type %h expired", current.correlationId, current.messageType);
+            timedOutRequests.incrementAndGet(current.messageType & 0xFF);
+            current.future.setException(new IOException(String.format("Timed out waiting for response to request %d",
+                    current.correlationId), new TimeoutException()));
+            if (listener != null) {
+                listener.requestExpired(current.correlationId, current.messageType);
+            }
+        }
+    }
+
+    private synchronized void stopTicker() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    /*
+     * Metrics
+     */
+
+    /**
+     * @return The number of requests of the specified type that timed out before a response was received.
+     */
+    long getTimedOutRequests(final byte messageType) {
+        return timedOutRequests.get(messageType & 0xFF);
+    }
+
+    /**
+     * @return The total number of requests that timed out before a response was received.
+     */
+    long getTimedOutRequests() {
+        long total = 0;
+        for (int i = 0; i < timedOutRequests.length(); i++) {
+            total += timedOutRequests.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of requests that timed out before a response was received by the name of the request message, only
+     *         request messages with at least one timed out request are included.
+     */
+    Map<String, Long> getTimedOutRequestsByName() {
+        Map<String, Long> timedOut = new HashMap<String, Long>();
+        for (int i = 0; i < timedOutRequests.length(); i++) {
+            long count = timedOutRequests.get(i);
+            if (count > 0) {
+                String name = MESSAGE_NAMES.get((byte) i);
+                timedOut.put(name != null ? name : String.format("0x%02X", i), count);
+            }
+        }
+
+        return timedOut;
+    }
+
+    /**
+     * @return true if the timer expiring requests is running.
+     */
+    synchronized boolean isTimerRunning() {
+        return ticker != null;
+    }
+
+    /**
+     * @return The number of requests currently awaiting a response.
+     */
+    synchronized int getPendingRequests() {
+        return requests.size();
+    }
+
+    /**
+     * Listener to be notified when a request expires without a response having been received.
+     */
+    interface ExpiryListener {
+
+        void requestExpired(int correlationId, byte messageType);
+
+    }
+
+    private static class PendingRequest extends TimerWheel.Entry {
+
+        private final int correlationId;
+        private final byte messageType;
+        private final VersionedIoFuture<?> future;
+        private final long deadline;
+
+        private PendingRequest(final int correlationId, final byte messageType, final VersionedIoFuture<?> future,
+                final long deadline) {
+            this.correlationId = correlationId;
+            this.messageType = messageType;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+    }
+
+    /**
+     * The task advancing the timer wheel, the manager is only weakly referenced so a manager that is never closed does not
+     * leave the task running forever.
+     */
+    private static class Ticker implements Runnable {
+
+        private final WeakReference<ClientRequestManager> manager;
+
+        private Ticker(final ClientRequestManager manager) {
+            this.manager = new WeakReference<ClientRequestManager>(manager);
+        }
+
+        public void run() {
+            ClientRequestManager current = manager.get();
+            if (current == null) {
+                // Throwing prevents any further executions of this task.
+                throw new IllegalStateException("ClientRequestManager no longer referenced");
+            }
+            try {
+                current.expireRequests();
+            } catch (RuntimeException e) {
+                log.debug("Unable to expire requests", e);
+            }
+        }
+
     }
 
 }
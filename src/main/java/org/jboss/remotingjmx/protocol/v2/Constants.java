@@ -48,8 +48,16 @@ class Constants {
     static final byte ADD_NOTIFICATION_LISTENER = 0x11;
     static final byte REMOVE_NOTIFICATION_LISTENER = 0x12;
     static final byte SEND_NOTIFICATION = 0x13;
+    static final byte CANCEL = 0x14;
+    static final byte PING = 0x15;
+    static final byte FETCH_NOTIFICATIONS = 0x17;
+    static final byte PATTERN_NOTIFICATION_LISTENER = 0x18;
+    static final byte ADD_NOTIFICATION_LISTENERS = 0x19;
+    static final byte CREDITED_NOTIFICATION_LISTENER = 0x1A;
+    static final byte NOTIFICATION_CREDITS = 0x1B;
     static final byte SET_KEY_PAIR = 0x70;
     static final byte BEGIN = 0x71;
+    static final byte SET_KEY_PAIRS = 0x72;
 
     /*
      * Response Mask
@@ -87,6 +95,7 @@ class Constants {
     static final byte NOTIFICATION_FILTER = 0x10;
     static final byte NOTIFICATION = 0x11;
     static final byte INTEGER_ARRAY = 0x12;
+    static final byte NOTIFICATION_ARRAY = 0x13;
 
     /*
      * General
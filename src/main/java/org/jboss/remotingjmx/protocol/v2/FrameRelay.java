@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.logging.Logger;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.MessageInputStream;
+import org.jboss.remoting3.MessageOutputStream;
+import org.jboss.remotingjmx.ServerMessageInterceptor;
+import org.jboss.remotingjmx.ServerMessageInterceptor.Event;
+import org.jboss.remotingjmx.VersionedProxy;
+import org.jboss.remotingjmx.WrappedMBeanServerConnection;
+import org.xnio.IoUtils;
+
+/**
+ * The server side of a connection from a client to a gateway where the messages are relayed to a channel opened to the backend
+ * server.
+ *
+ * Both channels have selected the same version and completed begin, as correlation IDs and notification listener IDs are only
+ * unique within a channel each message is copied to the other channel unchanged without the content being unmarshalled. Each
+ * direction is copied by the thread receiving the message before the next message is received so the order of the messages is
+ * retained.
+ */
+class FrameRelay implements VersionedProxy {
+
+    private static final Logger log = Logger.getLogger(FrameRelay.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Channel clientChannel;
+    private final Channel backendChannel;
+    private final WrappedMBeanServerConnection server;
+    private final ServerMessageInterceptor serverMessageInterceptor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private UUID connectionId;
+
+    FrameRelay(final Channel clientChannel, final Channel backendChannel, final WrappedMBeanServerConnection server,
+            final ServerMessageInterceptor serverMessageInterceptor) {
+        this.clientChannel = clientChannel;
+        this.backendChannel = backendChannel;
+        this.server = server;
+        this.serverMessageInterceptor = serverMessageInterceptor;
+    }
+
+    void start() {
+        connectionId = UUID.randomUUID();
+        log.debugf("Created relayed connectionID %s", connectionId.toString());
+        server.connectionOpened(this);
+        backendChannel.receiveMessage(new Forwarder(clientChannel, false));
+        clientChannel.receiveMessage(new Forwarder(backendChannel, true));
+    }
+
+    @Override
+    public String getConnectionId() {
+        return connectionId.toString();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            closeChannel(clientChannel);
+            closeChannel(backendChannel);
+            server.connectionClosed(this);
+        }
+    }
+
+    private static void closeChannel(final Channel channel) {
+        try {
+            channel.writeShutdown();
+        } catch (IOException ignored) {
+        }
+        IoUtils.safeClose(channel);
+    }
+
+    /**
+     * Copies each message received on one channel to the other channel.
+     */
+    private class Forwarder implements Channel.Receiver {
+
+        private final Channel target;
+        private final boolean fromClient;
+        // Only used by the thread receiving the current message.
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private Forwarder(final Channel target, final boolean fromClient) {
+            this.target = target;
+            this.fromClient = fromClient;
+        }
+
+        @Override
+        public void handleMessage(final Channel channel, final MessageInputStream message) {
+            try {
+                if (fromClient) {
+                    serverMessageInterceptor.handleEvent(new Event() {
+
+                        @Override
+                        public void run() throws IOException {
+                            copy(message);
+                        }
+                    });
+                } else {
+                    copy(message);
+                }
+            } catch (IOException e) {
+                log.debugf(e, "Unable to relay message for connection %s", connectionId);
+                close();
+                return;
+            } finally {
+                IoUtils.safeClose(message);
+            }
+
+            channel.receiveMessage(this);
+        }
+
+        private void copy(final MessageInputStream message) throws IOException {
+            MessageOutputStream output = target.writeMessage();
+            try {
+                int read;
+                while ((read = message.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+                output.close();
+                output = null;
+            } finally {
+                if (output != null) {
+                    output.cancel();
+                    IoUtils.safeClose(output);
+                }
+            }
+        }
+
+        @Override
+        public void handleError(final Channel channel, final IOException error) {
+            log.debugf(error, "Relayed connection %s closing due to error", connectionId);
+            close();
+        }
+
+        @Override
+        public void handleEnd(final Channel channel) {
+            close();
+        }
+
+    }
+
+}
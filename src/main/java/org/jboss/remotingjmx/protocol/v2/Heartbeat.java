@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Periodically pings the server to detect a peer that is no longer responding.
+ *
+ * A new ping is only sent once the previous ping has been answered, each interval that passes whilst a ping is outstanding
+ * counts as a missed heartbeat.  Once the maximum number of consecutive heartbeats have been missed the peer is considered
+ * to have failed.
+ */
+class Heartbeat implements Runnable {
+
+    private static final Logger log = Logger.getLogger(Heartbeat.class);
+
+    private final Peer peer;
+    private final int maxMissed;
+
+    // Guarded by this
+    private boolean awaitingPong = false;
+    private long sentNanos;
+    private int missed = 0;
+    private boolean failed = false;
+    private ScheduledFuture<?> task;
+
+    private volatile long roundTripNanos = -1;
+
+    Heartbeat(final Peer peer, final int maxMissed) {
+        this.peer = peer;
+        this.maxMissed = maxMissed;
+    }
+
+    synchronized void start(final long interval, final TimeUnit unit) {
+        if (task == null && failed == false) {
+            task = ClientExecutorManager.scheduleWithFixedDelay(this, interval, unit);
+        }
+    }
+
+    synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        final boolean peerFailed;
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            if (awaitingPong) {
+                missed++;
+                log.tracef("Missed heartbeat %d of %d", missed, maxMissed);
+                if (missed < maxMissed) {
+                    return;
+                }
+                failed = true;
+                stop();
+            } else {
+                awaitingPong = true;
+                sentNanos = System.nanoTime();
+            }
+            peerFailed = failed;
+        }
+
+        if (peerFailed) {
+            peer.failed(new IOException(String.format("No response received for %d heartbeats", maxMissed)));
+        } else {
+            peer.ping();
+        }
+    }
+
+    /**
+     * Called as the response to the outstanding ping is received.
+     */
+    synchronized void pongReceived() {
+        if (awaitingPong) {
+            roundTripNanos = System.nanoTime() - sentNanos;
+            awaitingPong = false;
+            missed = 0;
+            log.tracef("Heartbeat round trip time %d microseconds", TimeUnit.NANOSECONDS.toMicros(roundTripNanos));
+        }
+    }
+
+    /**
+     * @return The round trip time of the most recent heartbeat in nanoseconds or -1 if no heartbeat has completed.
+     */
+    long getRoundTripNanos() {
+        return roundTripNanos;
+    }
+
+    /**
+     * The peer being monitored.
+     */
+    interface Peer {
+
+        /**
+         * Send a ping to the peer, {@link Heartbeat#pongReceived()} is expected to be called once the response is received.
+         *
+         * This is called by the scheduler shared by all connections so must not block, the ping should be written by another
+         * thread.
+         */
+        void ping();
+
+        /**
+         * Called once if the peer is considered to have failed, like {@link #ping()} this must not block.
+         */
+        void failed(IOException reason);
+
+    }
+
+}
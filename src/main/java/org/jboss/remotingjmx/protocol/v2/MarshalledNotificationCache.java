@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.Notification;
+
+/**
+ * A cache of the most recently marshalled notifications.
+ *
+ * A notification sent to many connections, such as an MBean registration notification with many clients listening for it,
+ * is received by the listener of each connection, caching the marshalled form allows the notification to be marshalled once
+ * and the same bytes written to each connection.
+ *
+ * Notifications are cached by identity, as a Notification is mutable the sequence number, time stamp, source, message and
+ * user data are also compared by identity so a Notification that is modified and sent again is marshalled again.
+ *
+ * Changes made within an object already set as the user data can not be detected, once a Notification has been sent neither
+ * it nor the contents of its user data should be modified in place, a new Notification or new user data should be used
+ * instead. A source that does modify notifications in place can disable the cache by setting
+ * {@link org.jboss.remotingjmx.Constants#NOTIFICATION_MARSHALLED_CACHE_SIZE} to 0.
+ */
+class MarshalledNotificationCache {
+
+    private final boolean enabled;
+    // Guarded by cache
+    private final Map<Key, Entry> cache;
+
+    MarshalledNotificationCache(final int capacity) {
+        enabled = capacity > 0;
+        cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+
+        };
+    }
+
+    /**
+     * Get the marshalled form of the notification, if the notification has not already been marshalled it is marshalled
+     * using the supplied NotificationMarshaller.
+     *
+     * Where multiple threads request the same notification concurrently only one marshals it, the others wait for the result.
+     *
+     * If the cache has been created with a capacity of 0 every request marshals the notification.
+     */
+    byte[] getMarshalled(final Notification notification, final NotificationMarshaller marshaller) throws IOException {
+        if (enabled == false) {
+            return marshaller.marshal(notification);
+        }
+
+        Key key = new Key(notification);
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                cache.put(key, entry);
+            }
+        }
+
+        return entry.getMarshalled(notification, marshaller);
+    }
+
+    interface NotificationMarshaller {
+
+        byte[] marshal(Notification notification) throws IOException;
+
+    }
+
+    private static class Entry {
+
+        // Guarded by this
+        private byte[] marshalled;
+
+        private synchronized byte[] getMarshalled(final Notification notification, final NotificationMarshaller marshaller)
+                throws IOException {
+            if (marshalled == null) {
+                marshalled = marshaller.marshal(notification);
+            }
+            return marshalled;
+        }
+
+    }
+
+    private static class Key {
+
+        private final Notification notification;
+        private final long sequenceNumber;
+        private final long timeStamp;
+        private final Object source;
+        private final String message;
+        private final Object userData;
+
+        private Key(final Notification notification) {
+            this.notification = notification;
+            this.sequenceNumber = notification.getSequenceNumber();
+            this.timeStamp = notification.getTimeStamp();
+            this.source = notification.getSource();
+            this.message = notification.getMessage();
+            this.userData = notification.getUserData();
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(notification) * 31 + (int) (sequenceNumber ^ (sequenceNumber >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key == false) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return notification == other.notification && sequenceNumber == other.sequenceNumber
+                    && timeStamp == other.timeStamp && source == other.source && message == other.message
+                    && userData == other.userData;
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+/**
+ * The registry of the notification listeners registered by a client.
+ *
+ * Associations are indexed both by their ID and by the combination of ObjectName and listener so removals only need to check
+ * the associations for the same ObjectName and listener instead of every association.
+ *
+ * Looking up an association by ID, as happens for every notification received, does not lock.  Changes to the registry are
+ * synchronized.
+ */
+class NotificationListenerRegistry {
+
+    private final Map<Integer, Association> byId = new ConcurrentHashMap<Integer, Association>();
+    // Guarded by this
+    private final Map<ListenerKey, List<Association>> byListener = new HashMap<ListenerKey, List<Association>>();
+    private int nextNotificationId = 1;
+
+    private int getNextNotificationId() {
+        int next = nextNotificationId++;
+        // After the maximum integer start back at the beginning.
+        if (next < 0) {
+            nextNotificationId = 2;
+            next = 1;
+        }
+        return next;
+    }
+
+    /**
+     * Register a new association.
+     *
+     * @return The ID allocated to the association.
+     */
+    synchronized int associate(final ObjectName target, final NotificationListener listener, final NotificationFilter filter,
+            final Object handBack) {
+        int next = getNextNotificationId();
+
+        // Not likely but possible to use all IDs and start back at beginning while
+        // old request still in progress.
+        while (byId.containsKey(next)) {
+            next = getNextNotificationId();
+        }
+
+        Association association = new Association(next, target, listener, filter, handBack);
+        ListenerKey key = new ListenerKey(target, listener);
+        List<Association> associations = byListener.get(key);
+        if (associations == null) {
+            associations = new ArrayList<Association>(1);
+            byListener.put(key, associations);
+        }
+        associations.add(association);
+        byId.put(next, association);
+
+        return next;
+    }
+
+    synchronized void cancel(final int id) {
+        Association association = byId.remove(id);
+        if (association != null) {
+            ListenerKey key = new ListenerKey(association.target, association.listener);
+            List<Association> associations = byListener.get(key);
+            associations.remove(association);
+            if (associations.isEmpty()) {
+                byListener.remove(key);
+            }
+        }
+    }
+
+    Association get(final int id) {
+        return byId.get(id);
+    }
+
+    List<Association> getAssociations() {
+        return new ArrayList<Association>(byId.values());
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Remove all associations for the ObjectName and listener.
+     *
+     * @return The IDs of the associations removed.
+     */
+    synchronized int[] matchToRemove(final ObjectName name, final NotificationListener listener) {
+        List<Association> associations = byListener.remove(new ListenerKey(name, listener));
+        if (associations == null) {
+            return new int[0];
+        }
+
+        int[] response = new int[associations.size()];
+        for (int i = 0; i < response.length; i++) {
+            response[i] = associations.get(i).id;
+            byId.remove(response[i]);
+        }
+        return response;
+    }
+
+    /**
+     * Remove the associations for the ObjectName and listener also registered with the same filter and handback.
+     *
+     * @return The IDs of the associations removed.
+     */
+    synchronized int[] matchToRemove(final ObjectName name, final NotificationListener listener,
+            final NotificationFilter filter, final Object handback) {
+        ListenerKey key = new ListenerKey(name, listener);
+        List<Association> associations = byListener.get(key);
+        if (associations == null) {
+            return new int[0];
+        }
+
+        List<Integer> toRemove = new ArrayList<Integer>();
+        Iterator<Association> associationIterator = associations.iterator();
+        while (associationIterator.hasNext()) {
+            Association current = associationIterator.next();
+            if (filter == current.filter && handback == current.handBack) {
+                associationIterator.remove();
+                byId.remove(current.id);
+                toRemove.add(current.id);
+            }
+        }
+        if (associations.isEmpty()) {
+            byListener.remove(key);
+        }
+
+        int[] response = new int[toRemove.size()];
+        for (int i = 0; i < response.length; i++) {
+            response[i] = toRemove.get(i);
+        }
+        return response;
+    }
+
+    static class Association {
+        final int id;
+        final ObjectName target;
+        final NotificationListener listener;
+        final NotificationFilter filter;
+        final Object handBack;
+
+        private Association(final int id, final ObjectName target, final NotificationListener listener,
+                final NotificationFilter filter, final Object handBack) {
+            this.id = id;
+            this.target = target;
+            this.listener = listener;
+            this.filter = filter;
+            this.handBack = handBack;
+        }
+    }
+
+    /**
+     * Key of the ObjectName and listener, listeners are compared by identity as with the removal of listeners from an
+     * MBeanServer.
+     */
+    private static class ListenerKey {
+
+        private final ObjectName name;
+        private final NotificationListener listener;
+        private final int hashCode;
+
+        private ListenerKey(final ObjectName name, final NotificationListener listener) {
+            this.name = name;
+            this.listener = listener;
+            this.hashCode = name.hashCode() * 31 + System.identityHashCode(listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ListenerKey == false) {
+                return false;
+            }
+            ListenerKey other = (ListenerKey) obj;
+            return listener == other.listener && name.equals(other.name);
+        }
+
+    }
+
+}
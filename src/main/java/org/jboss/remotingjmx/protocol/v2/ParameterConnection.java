@@ -19,15 +19,20 @@
 package org.jboss.remotingjmx.protocol.v2;
 
 import static org.jboss.remotingjmx.protocol.v2.Constants.BEGIN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.INTEGER;
 import static org.jboss.remotingjmx.protocol.v2.Constants.RESPONSE_MASK;
 import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIR;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIRS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.STRING;
 import static org.jboss.remotingjmx.protocol.v2.Constants.VOID;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -54,23 +59,28 @@ public class ParameterConnection extends ClientCommon {
     private final ClientRequestManager clientRequestManager;
     private final ClientExecutorManager clientExecutorManager;
     private final JMXServiceURL serviceUrl;
+    private final byte version;
     // Registry of handlers for the incoming messages.
     private final Map<Byte, Common.MessageHandler> handlerRegistry;
+    private int requestTimeout;
 
-    ParameterConnection(Channel channel, final Map<String, ?> environment, final JMXServiceURL serviceUrl) {
+    ParameterConnection(Channel channel, final Map<String, ?> environment, final JMXServiceURL serviceUrl, final byte version) {
         super(channel, environment);
         this.channel = channel;
         this.environment = environment;
-        this.clientRequestManager = new ClientRequestManager();
+        this.clientRequestManager = new ClientRequestManager(timeoutSeconds);
         this.clientExecutorManager = new ClientExecutorManager(environment);
         this.serviceUrl = serviceUrl;
+        this.version = version;
         this.handlerRegistry = createHandlerRegistry();
+        this.requestTimeout = timeoutSeconds;
     }
 
     private Map<Byte, Common.MessageHandler> createHandlerRegistry() {
         Map<Byte, Common.MessageHandler> registry = new HashMap<Byte, Common.MessageHandler>();
         registry.put((byte) (SET_KEY_PAIR ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
         registry.put((byte) (BEGIN ^ RESPONSE_MASK), new BeginResponseHandler());
+        registry.put((byte) (SET_KEY_PAIRS ^ RESPONSE_MASK), new MarshalledResponseHandler<Void>(VOID));
 
         return Collections.unmodifiableMap(registry);
     }
@@ -91,32 +101,62 @@ public class ParameterConnection extends ClientCommon {
     }
 
     VersionedConnection getConnection() throws IOException {
-        sendVersionHeader();
-
-        IoFuture<Void> futureWelcome = WelcomeMessageReceiver.awaitWelcomeMessage(channel);
-        IoFuture.Status result = futureWelcome.await(timeoutSeconds, TimeUnit.SECONDS);
-        switch (result) {
-            case DONE:
-                // Set this first as something will need to start handling the response messages.
-                channel.receiveMessage(new MessageReceiver());
-                break;
-            case FAILED:
-                throw futureWelcome.getException();
-            default:
-                throw new IOException("Unable to obtain connectionId, status=" + result.toString());
-        }
-
-        sendKeyPairs();
         String connectionId = begin();
 
-        ClientConnection cc = new ClientConnection(channel, environment, clientRequestManager, clientExecutorManager,
-                connectionId);
+        ClientConnection cc = new ClientConnection(channel, environment, serviceUrl, clientRequestManager,
+                clientExecutorManager, connectionId, version);
         cc.start();
 
         return cc;
     }
 
-    private void sendKeyPairs() throws IOException {
+    /**
+     * Select the version and call begin without starting a ClientConnection, once complete no Receiver is set for the channel so
+     * the messages of a client connected to a gateway can be relayed using the channel.
+     *
+     * @param requestTimeout - The request timeout of the relayed client, passed to the server from version three.
+     * @return The connection ID returned in response to begin.
+     */
+    String beginRelay(final int requestTimeout) throws IOException {
+        this.requestTimeout = requestTimeout;
+        try {
+            return begin();
+        } finally {
+            clientExecutorManager.close();
+        }
+    }
+
+    private String begin() throws IOException {
+        sendVersionHeader();
+
+        final String connectionId;
+        if (VersionThree.isVersionThree(version)) {
+            // No welcome message is sent by the server, the parameters and begin are sent immediately.
+            channel.receiveMessage(new MessageReceiver());
+            connectionId = pipelinedBegin();
+        } else {
+            IoFuture<Void> futureWelcome = WelcomeMessageReceiver.awaitWelcomeMessage(channel);
+            IoFuture.Status result = futureWelcome.await(timeoutSeconds, TimeUnit.SECONDS);
+            switch (result) {
+                case DONE:
+                    // Set this first as something will need to start handling the response messages.
+                    channel.receiveMessage(new MessageReceiver());
+                    break;
+                case FAILED:
+                    throw futureWelcome.getException();
+                default:
+                    throw new IOException("Unable to obtain connectionId, status=" + result.toString());
+            }
+
+            sendKeyPairs();
+            connectionId = sequentialBegin();
+        }
+
+        return connectionId;
+    }
+
+    private Map<String, String> getKeyPairs() throws IOException {
+        Map<String, String> keyPairs = new LinkedHashMap<String, String>();
         String path = serviceUrl.getURLPath();
         if (path.contains("?")) {
             String parameters = path.substring(path.indexOf("?") + 1);
@@ -124,12 +164,20 @@ public class ParameterConnection extends ClientCommon {
             for (String currentPair : pairs) {
                 String[] keyValue = currentPair.split("=");
                 if (keyValue.length == 2) {
-                    setKeyPair(keyValue[0], keyValue[1]);
+                    keyPairs.put(keyValue[0], keyValue[1]);
                 } else {
                     throw new IOException(String.format("Unable to parse key pairs from '%s'", parameters));
                 }
             }
         }
+
+        return keyPairs;
+    }
+
+    private void sendKeyPairs() throws IOException {
+        for (Map.Entry<String, String> current : getKeyPairs().entrySet()) {
+            setKeyPair(current.getKey(), current.getValue());
+        }
     }
 
     private void sendVersionHeader() throws IOException {
@@ -137,82 +185,143 @@ public class ParameterConnection extends ClientCommon {
             @Override
             public void write(DataOutput output) throws IOException {
                 output.writeBytes("JMX");
-                output.writeByte(VersionTwo.getVersionIdentifier());
+                output.writeByte(version);
             }
         });
     }
 
     private void setKeyPair(final String key, final String value) throws IOException {
         VersionedIoFuture<TypeExceptionHolder<Void>> future = new VersionedIoFuture<TypeExceptionHolder<Void>>();
-        final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
+        final int correlationId = clientRequestManager.reserveNextCorrelationId(future, SET_KEY_PAIR);
         try {
-            write(new MessageWriter() {
+            writeKeyPair(correlationId, key, value);
+            awaitResponse(future, "setKeyPair");
+        } finally {
+            clientRequestManager.releaseCorrelationId(correlationId);
+        }
+    }
 
-                @Override
-                public void write(DataOutput output) throws IOException {
-                    output.writeByte(SET_KEY_PAIR);
-                    output.writeInt(correlationId);
+    private void writeKeyPair(final int correlationId, final String key, final String value) throws IOException {
+        write(new MessageWriter() {
 
-                    output.writeByte(STRING);
-                    output.writeUTF(key);
-                    output.writeByte(STRING);
-                    output.writeUTF(value);
-                }
-            });
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(SET_KEY_PAIR);
+                output.writeInt(correlationId);
 
-            log.tracef("[%d] unregisterMBean - Request Sent", correlationId);
+                output.writeByte(STRING);
+                output.writeUTF(key);
+                output.writeByte(STRING);
+                output.writeUTF(value);
+            }
+        });
 
-            IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
-            switch (result) {
-                case FAILED:
-                    throw future.getException();
-                case DONE:
-                    TypeExceptionHolder<Void> response = future.get();
-                    if (response.e == null) {
-                        return;
-                    }
+        log.tracef("[%d] setKeyPair - Request Sent", correlationId);
+    }
 
-                    throw toIoException(response.e);
-                default:
-                    throw new IOException("Unable to invoke unregisterMBean, status=" + result.toString());
-            }
+    private String sequentialBegin() throws IOException {
+        VersionedIoFuture<TypeExceptionHolder<String>> future = new VersionedIoFuture<TypeExceptionHolder<String>>();
+        final int correlationId = clientRequestManager.reserveNextCorrelationId(future, BEGIN);
+        try {
+            writeBegin(correlationId);
+            return awaitResponse(future, "begin");
         } finally {
             clientRequestManager.releaseCorrelationId(correlationId);
         }
     }
 
-    private String begin() throws IOException {
-        VersionedIoFuture<TypeExceptionHolder<String>> future = new VersionedIoFuture<TypeExceptionHolder<String>>();
-        final int correlationId = clientRequestManager.reserveNextCorrelationId(future);
-        try {
-            write(new MessageWriter() {
+    private void writeBegin(final int correlationId) throws IOException {
+        write(new MessageWriter() {
 
-                @Override
-                public void write(DataOutput output) throws IOException {
-                    output.writeByte(BEGIN);
-                    output.writeInt(correlationId);
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(BEGIN);
+                output.writeInt(correlationId);
+                if (VersionThree.isVersionThree(version)) {
+                    // From version three the server is told how long we will wait for each response.
+                    output.writeByte(INTEGER);
+                    output.writeInt(requestTimeout);
                 }
-            });
+            }
+        });
 
-            log.tracef("[%d] begin - Request Sent", correlationId);
+        log.tracef("[%d] begin - Request Sent", correlationId);
+    }
 
-            IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
-            switch (result) {
-                case FAILED:
-                    throw future.getException();
-                case DONE:
-                    TypeExceptionHolder<String> response = future.get();
-                    if (response.e == null) {
-                        return response.value;
-                    }
-                    throw toIoException(response.e);
-                default:
-                    throw new IOException("Unable to invoke begin, status=" + result.toString());
+    private void writeKeyPairs(final int correlationId, final Map<String, String> keyPairs) throws IOException {
+        write(new MessageWriter() {
+
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(SET_KEY_PAIRS);
+                output.writeInt(correlationId);
+
+                output.writeByte(INTEGER);
+                output.writeInt(keyPairs.size());
+                for (Map.Entry<String, String> current : keyPairs.entrySet()) {
+                    output.writeByte(STRING);
+                    output.writeUTF(current.getKey());
+                    output.writeByte(STRING);
+                    output.writeUTF(current.getValue());
+                }
+            }
+        });
+
+        log.tracef("[%d] setKeyPairs - Request Sent", correlationId);
+    }
+
+    /**
+     * Send all of the key pairs in a single setKeyPairs request followed by begin without waiting for the response in
+     * between, the server processes the requests in the order received so only a single round trip is needed to establish
+     * the connection.
+     *
+     * @return The connection ID returned in response to begin.
+     */
+    private String pipelinedBegin() throws IOException {
+        Map<String, String> keyPairs = getKeyPairs();
+        VersionedIoFuture<TypeExceptionHolder<Void>> keyPairsFuture = null;
+        List<Integer> correlationIds = new ArrayList<Integer>(2);
+        try {
+            if (keyPairs.isEmpty() == false) {
+                keyPairsFuture = new VersionedIoFuture<TypeExceptionHolder<Void>>();
+                int correlationId = clientRequestManager.reserveNextCorrelationId(keyPairsFuture, SET_KEY_PAIRS);
+                correlationIds.add(correlationId);
+                writeKeyPairs(correlationId, keyPairs);
             }
+
+            VersionedIoFuture<TypeExceptionHolder<String>> beginFuture = new VersionedIoFuture<TypeExceptionHolder<String>>();
+            int correlationId = clientRequestManager.reserveNextCorrelationId(beginFuture, BEGIN);
+            correlationIds.add(correlationId);
+            writeBegin(correlationId);
+
+            // The responses are sent in order so any failure setting the key pairs will be reported before begin completes.
+            if (keyPairsFuture != null) {
+                awaitResponse(keyPairsFuture, "setKeyPairs");
+            }
+
+            return awaitResponse(beginFuture, "begin");
         } finally {
-            clientRequestManager.releaseCorrelationId(correlationId);
+            for (Integer current : correlationIds) {
+                clientRequestManager.releaseCorrelationId(current);
+            }
         }
+    }
 
+    private <T> T awaitResponse(final VersionedIoFuture<TypeExceptionHolder<T>> future, final String operation)
+            throws IOException {
+        IoFuture.Status result = future.await(timeoutSeconds, TimeUnit.SECONDS);
+        switch (result) {
+            case FAILED:
+                throw future.getException();
+            case DONE:
+                TypeExceptionHolder<T> response = future.get();
+                if (response.e == null) {
+                    return response.value;
+                }
+                throw toIoException(response.e);
+            default:
+                throw new IOException("Unable to invoke " + operation + ", status=" + result.toString());
+        }
     }
 
     private class BeginResponseHandler extends StringResponseHandler implements ClientCommon.MessageHandler {
@@ -19,7 +19,9 @@
 package org.jboss.remotingjmx.protocol.v2;
 
 import static org.jboss.remotingjmx.protocol.v2.Constants.BEGIN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.INTEGER;
 import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIR;
+import static org.jboss.remotingjmx.protocol.v2.Constants.SET_KEY_PAIRS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.STRING;
 
 import java.io.DataInput;
@@ -32,6 +34,7 @@ import java.util.concurrent.Executor;
 import org.jboss.logging.Logger;
 import org.jboss.remoting3.Channel;
 import org.jboss.remotingjmx.MBeanServerManager;
+import org.jboss.remotingjmx.RelayingMBeanServerConnection;
 import org.jboss.remotingjmx.ServerMessageInterceptor;
 import org.jboss.remotingjmx.WrappedMBeanServerConnection;
 
@@ -51,11 +54,15 @@ public class ParameterProxy extends ServerCommon {
     private final MBeanServerManager mbeanServerManager;
     private final Executor executor;
     private final ServerMessageInterceptor serverMessageInterceptor;
+    private final byte version;
+    private final boolean cancellationInterrupt;
 
     ParameterProxy(Channel channel, MBeanServerManager mbeanServerManager, Executor executor,
-            ServerMessageInterceptor serverMessageInterceptor) {
+            ServerMessageInterceptor serverMessageInterceptor, byte version, boolean cancellationInterrupt) {
         super(channel, executor, serverMessageInterceptor);
         this.channel = channel;
+        this.version = version;
+        this.cancellationInterrupt = cancellationInterrupt;
         this.executor = executor;
         this.mbeanServerManager = mbeanServerManager;
         registry = createHandlerRegistry();
@@ -66,6 +73,9 @@ public class ParameterProxy extends ServerCommon {
         Map<Byte, Common.MessageHandler> registry = new HashMap<Byte, Common.MessageHandler>();
         registry.put(SET_KEY_PAIR, new SetKeyPairHandler());
         registry.put(BEGIN, new BeginHandler());
+        if (VersionThree.isVersionThree(version)) {
+            registry.put(SET_KEY_PAIRS, new SetKeyPairsHandler());
+        }
 
         return Collections.unmodifiableMap(registry);
     }
@@ -73,8 +83,10 @@ public class ParameterProxy extends ServerCommon {
     void start() throws IOException {
         // Create a connection ID
         log.debugf("Created connection - ID to be established after parameter negotiation.");
-        // Send the welcome message.
-        sendWelcomeMessage();
+        if (VersionThree.isVersionThree(version) == false) {
+            // Send the welcome message, from version three the client sends the parameters without waiting for one.
+            sendWelcomeMessage();
+        }
 
         channel.receiveMessage(new MessageReciever());
     }
@@ -88,30 +100,86 @@ public class ParameterProxy extends ServerCommon {
     void end() {
     }
 
-    private class SetKeyPairHandler implements Common.MessageHandler {
+    private class SetKeyPairHandler extends MessageHandler {
 
         @Override
         public void handle(DataInput input, final int correlationId) throws IOException {
             log.trace("SetKeyPair");
+            try {
+                setKeyPair(input, correlationId);
+            } finally {
+                if (endReceiveLoop()) {
+                    channel.receiveMessage(new MessageReciever());
+                }
+            }
+        }
+
+        private void setKeyPair(DataInput input, final int correlationId) throws IOException {
+            readKeyPair(input, keyPairs);
+
+            writeResponse(SET_KEY_PAIR, correlationId);
+        }
+
+        @Override
+        boolean endReceiveLoop() {
+            // From version three the client does not wait for the response before sending the next request, the next
+            // message is only received once this one is complete so that begin can not overtake it.
+            return VersionThree.isVersionThree(version);
+        }
+    }
+
+    private class SetKeyPairsHandler extends MessageHandler {
 
+        @Override
+        public void handle(DataInput input, final int correlationId) throws IOException {
+            log.trace("SetKeyPairs");
+            try {
+                setKeyPairs(input, correlationId);
+            } finally {
+                channel.receiveMessage(new MessageReciever());
+            }
+        }
+
+        private void setKeyPairs(DataInput input, final int correlationId) throws IOException {
             byte paramType = input.readByte();
-            if (paramType != STRING) {
+            if (paramType != INTEGER) {
                 throw new IOException("Unexpected paramType");
             }
 
-            String name = input.readUTF();
-
-            paramType = input.readByte();
-            if (paramType != STRING) {
-                throw new IOException("Unexpected paramType");
+            int count = input.readInt();
+            // Nothing is applied unless the whole payload is valid.
+            Map<String, String> parsed = new HashMap<String, String>();
+            for (int i = 0; i < count; i++) {
+                readKeyPair(input, parsed);
             }
+            keyPairs.putAll(parsed);
+
+            writeResponse(SET_KEY_PAIRS, correlationId);
+        }
 
-            String value = input.readUTF();
+        @Override
+        boolean endReceiveLoop() {
+            // The client sends begin without waiting for the response so begin must not be received until this completes.
+            return true;
+        }
+    }
 
-            keyPairs.put(name, value);
+    private void readKeyPair(DataInput input, final Map<String, String> target) throws IOException {
+        byte paramType = input.readByte();
+        if (paramType != STRING) {
+            throw new IOException("Unexpected paramType");
+        }
 
-            writeResponse(SET_KEY_PAIR, correlationId);
+        String name = input.readUTF();
+
+        paramType = input.readByte();
+        if (paramType != STRING) {
+            throw new IOException("Unexpected paramType");
         }
+
+        String value = input.readUTF();
+
+        target.put(name, value);
     }
 
     private class BeginHandler extends MessageHandler {
@@ -120,10 +188,27 @@ public class ParameterProxy extends ServerCommon {
         public void handle(DataInput input, int correlationId) throws IOException {
             log.trace("Begin");
 
+            int requestTimeout = 0;
+            if (VersionThree.isVersionThree(version)) {
+                byte paramType = input.readByte();
+                if (paramType != INTEGER) {
+                    throw new IOException("Unexpected paramType");
+                }
+                requestTimeout = input.readInt();
+            }
+
             WrappedMBeanServerConnection mbeanServer = mbeanServerManager.getMBeanServer(keyPairs);
 
+            if (mbeanServer instanceof RelayingMBeanServerConnection && relay((RelayingMBeanServerConnection) mbeanServer,
+                    requestTimeout, correlationId)) {
+                return;
+            }
+
             if (mbeanServer != null) {
-                ServerProxy server = new ServerProxy(channel, mbeanServer, executor, serverMessageInterceptor);
+                ServerProxy server = new ServerProxy(channel, mbeanServer, executor, serverMessageInterceptor, version);
+                if (VersionThree.isVersionThree(version)) {
+                    server.enableCancellation(requestTimeout, cancellationInterrupt);
+                }
                 server.start();
 
                 String connectionId = server.getConnectionId();
@@ -134,6 +219,31 @@ public class ParameterProxy extends ServerCommon {
             }
         }
 
+        /**
+         * Relay the messages of the client to a channel opened to the backend server.
+         *
+         * @return true if the client is being relayed, false if the MBeanServerConnection should be used instead.
+         */
+        private boolean relay(final RelayingMBeanServerConnection mbeanServer, final int requestTimeout,
+                final int correlationId) throws IOException {
+            final Channel backendChannel;
+            try {
+                backendChannel = mbeanServer.openRelayChannel(version, requestTimeout);
+            } catch (IOException e) {
+                log.debugf(e, "Unable to relay to backend, requests will be repeated using the MBeanServerConnection.");
+                return false;
+            }
+            if (backendChannel == null) {
+                return false;
+            }
+
+            FrameRelay relay = new FrameRelay(channel, backendChannel, mbeanServer, serverMessageInterceptor);
+            relay.start();
+
+            writeResponse(relay.getConnectionId(), BEGIN, correlationId);
+            return true;
+        }
+
         @Override
         boolean endReceiveLoop() {
             // This handler is responsible for setting the next Receiver.
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives the responses to requests priority over notifications written on the same connection.
+ *
+ * Notifications are written in chunks and before each chunk the notification waits whilst any response is being written, so
+ * a burst of large notifications does not delay the response.  Notifications are only held back whilst a response is actually
+ * being written, a request that is still being processed does not delay notifications.  The total wait is limited for each
+ * pass of the sender through the queued notifications so a continuous stream of responses can not prevent notifications being
+ * sent.
+ */
+class ResponsePriority {
+
+    private final long maxYieldNanos;
+    // Guarded by this
+    private int writing = 0;
+
+    ResponsePriority(final long maxYieldMillis) {
+        this.maxYieldNanos = TimeUnit.MILLISECONDS.toNanos(maxYieldMillis);
+    }
+
+    synchronized void responseStarted() {
+        writing++;
+    }
+
+    synchronized void responseComplete() {
+        if (--writing == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return The deadline for a pass of the sender starting now to stop waiting for responses.
+     */
+    long yieldDeadline() {
+        return System.nanoTime() + maxYieldNanos;
+    }
+
+    /**
+     * Wait whilst responses are being written until the deadline is reached.
+     */
+    synchronized void awaitResponses(final long deadline) throws InterruptedIOException {
+        long remaining;
+        while (writing > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+}
@@ -27,7 +27,10 @@ import static org.jboss.remotingjmx.protocol.v2.Constants.SUCCESS;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.management.JMRuntimeException;
 
@@ -51,12 +54,68 @@ public abstract class ServerCommon extends Common {
     private final Executor executor;
     private final ServerMessageInterceptor serverMessageInterceptor;
 
+    /**
+     * The requests received and not yet completed, only tracked once cancellation has been enabled.
+     */
+    private final ConcurrentMap<Integer, ServerRequest> requests = new ConcurrentHashMap<Integer, ServerRequest>();
+    private final ThreadLocal<ServerRequest> currentRequest = new ThreadLocal<ServerRequest>();
+    private volatile boolean cancellationEnabled = false;
+    private volatile boolean interruptCancelled = false;
+    private volatile long requestTimeoutNanos = 0;
+
     ServerCommon(Channel channel, Executor executor, ServerMessageInterceptor serverMessageInterceptor) {
         super(channel);
         this.executor = executor;
         this.serverMessageInterceptor = serverMessageInterceptor;
     }
 
+    /**
+     * Enable tracking of the requests received so they can be cancelled by the client.
+     *
+     * @param requestTimeoutSeconds - The timeout of the client, requests still queued once the timeout has elapsed since they
+     *        were received will not be processed. A value less than or equal to 0 disables this check.
+     * @param interruptCancelled - true if the thread processing a request should be interrupted when the request is
+     *        cancelled, otherwise requests already being processed run to completion and only their response is discarded.
+     */
+    void enableCancellation(final int requestTimeoutSeconds, final boolean interruptCancelled) {
+        requestTimeoutNanos = requestTimeoutSeconds > 0 ? TimeUnit.SECONDS.toNanos(requestTimeoutSeconds) : 0;
+        this.interruptCancelled = interruptCancelled;
+        cancellationEnabled = true;
+    }
+
+    /**
+     * Cancel the request with the specified correlation ID, if the request is still queued it will not be processed and if it
+     * is already being processed the thread processing it will be interrupted if enabled. In either case no response will be
+     * sent.
+     */
+    void cancelRequest(final int correlationId) {
+        ServerRequest request = requests.get(correlationId);
+        if (request != null) {
+            log.tracef("[%d] Cancelling request", correlationId);
+            request.cancel();
+        }
+    }
+
+    /**
+     * Cancel all requests still in progress.
+     */
+    void cancelAllRequests() {
+        for (ServerRequest current : requests.values()) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    protected void write(MessageWriter writer) throws IOException {
+        ServerRequest request = currentRequest.get();
+        if (request != null && request.beginResponse() == false) {
+            log.tracef("[%d] Request cancelled, response discarded", request.correlationId);
+            return;
+        }
+
+        super.write(writer);
+    }
+
     protected void sendWelcomeMessage() throws IOException {
         write(new MessageWriter() {
 
@@ -119,6 +178,81 @@ public abstract class ServerCommon extends Common {
         boolean endReceiveLoop() {
             return false;
         }
+
+        /**
+         * @return true if the message should be handled immediately by the thread receiving it instead of being passed to the
+         *         executor.
+         */
+        boolean handleImmediately() {
+            return false;
+        }
+    }
+
+    /**
+     * The state of a request that can be cancelled.
+     */
+    private class ServerRequest {
+
+        private final int correlationId;
+        private final long received = System.nanoTime();
+        // Guarded by this
+        private Thread thread;
+        private boolean cancelled = false;
+        private boolean responding = false;
+
+        private ServerRequest(final int correlationId) {
+            this.correlationId = correlationId;
+        }
+
+        /**
+         * Called by the thread about to process the request.
+         *
+         * @return true if the request should be processed.
+         */
+        private synchronized boolean begin() {
+            if (cancelled) {
+                return false;
+            }
+            if (requestTimeoutNanos > 0 && System.nanoTime() - received > requestTimeoutNanos) {
+                log.tracef("[%d] Request timeout elapsed before processing started", correlationId);
+                cancelled = true;
+                return false;
+            }
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        /**
+         * Called before the response is written, once the response is being written the thread is no longer interrupted.
+         *
+         * @return true if the response should be written.
+         */
+        private synchronized boolean beginResponse() {
+            if (cancelled) {
+                return false;
+            }
+            responding = true;
+            return true;
+        }
+
+        private synchronized void end() {
+            thread = null;
+            if (cancelled && interruptCancelled) {
+                // Clear any interrupt so it does not affect the next task run by this thread.
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void cancel() {
+            if (cancelled || responding) {
+                return;
+            }
+            cancelled = true;
+            if (thread != null && interruptCancelled) {
+                thread.interrupt();
+            }
+        }
+
     }
 
     protected class MessageReciever implements Channel.Receiver {
@@ -136,11 +270,29 @@ public abstract class ServerCommon extends Common {
                 if (mh instanceof MessageHandler) {
                     endReceiveLoop = ((MessageHandler) mh).endReceiveLoop();
                 }
-                if (mh != null) {
+                if (mh instanceof MessageHandler && ((MessageHandler) mh).handleImmediately()) {
+                    try {
+                        mh.handle(dis, correlationId);
+                    } finally {
+                        IoUtils.safeClose(dis);
+                    }
+                } else if (mh != null) {
+                    final ServerRequest request = cancellationEnabled && correlationId != 0x00 ? new ServerRequest(correlationId)
+                            : null;
+                    if (request != null) {
+                        requests.put(correlationId, request);
+                    }
                     executor.execute(new Runnable() {
 
                         @Override
                         public void run() {
+                            if (request != null && request.begin() == false) {
+                                log.tracef("[%d] %h - Request cancelled before processing", correlationId, messageId);
+                                requests.remove(correlationId, request);
+                                IoUtils.safeClose(dis);
+                                return;
+                            }
+                            currentRequest.set(request);
                             try {
                                 serverMessageInterceptor.handleEvent(new Event() {
 
@@ -166,6 +318,11 @@ public abstract class ServerCommon extends Common {
                                     log.error("null correlationId so error not sent to client", t);
                                 }
                             } finally {
+                                if (request != null) {
+                                    currentRequest.remove();
+                                    requests.remove(correlationId, request);
+                                    request.end();
+                                }
                                 IoUtils.safeClose(dis);
                             }
                         }
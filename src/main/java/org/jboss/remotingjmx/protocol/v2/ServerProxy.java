@@ -18,11 +18,17 @@
 
 package org.jboss.remotingjmx.protocol.v2;
 
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_MARSHALLED_CACHE_SIZE;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_MAX_YIELD;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.ADD_NOTIFICATION_LISTENERS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ATTRIBUTE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.ATTRIBUTE_LIST;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CANCEL;
 import static org.jboss.remotingjmx.protocol.v2.Constants.BOOLEAN;
 import static org.jboss.remotingjmx.protocol.v2.Constants.CREATE_MBEAN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.CREDITED_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.FETCH_NOTIFICATIONS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_ATTRIBUTES;
 import static org.jboss.remotingjmx.protocol.v2.Constants.GET_DEFAULT_DOMAIN;
@@ -37,11 +43,15 @@ import static org.jboss.remotingjmx.protocol.v2.Constants.INVOKE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.IS_REGISTERED;
 import static org.jboss.remotingjmx.protocol.v2.Constants.MBEAN_INFO;
 import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION;
+import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_ARRAY;
+import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_CREDITS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.NOTIFICATION_FILTER;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_ARRAY;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_INSTANCE;
 import static org.jboss.remotingjmx.protocol.v2.Constants.OBJECT_NAME;
+import static org.jboss.remotingjmx.protocol.v2.Constants.PATTERN_NOTIFICATION_LISTENER;
+import static org.jboss.remotingjmx.protocol.v2.Constants.PING;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_EXP;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_MBEANS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.QUERY_NAMES;
@@ -57,18 +67,26 @@ import static org.jboss.remotingjmx.protocol.v2.Constants.STRING_ARRAY;
 import static org.jboss.remotingjmx.protocol.v2.Constants.SUCCESS;
 import static org.jboss.remotingjmx.protocol.v2.Constants.UNREGISTER_MBEAN;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.security.AccessController;
-import java.security.PrivilegedExceptionAction;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -83,6 +101,8 @@ import javax.management.MBeanInfo;
 import javax.management.MBeanRegistrationException;
 import javax.management.MBeanServer;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
 import javax.management.NotCompliantMBeanException;
 import javax.management.Notification;
 import javax.management.NotificationFilter;
@@ -100,6 +120,7 @@ import org.jboss.remoting3.Channel;
 import org.jboss.remotingjmx.ServerMessageInterceptor;
 import org.jboss.remotingjmx.VersionedProxy;
 import org.jboss.remotingjmx.WrappedMBeanServerConnection;
+import org.jboss.remotingjmx.protocol.v2.ClassLoaderCache.CachedClassLoader;
 
 /**
  * The VersionOne server proxy.
@@ -112,6 +133,17 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
 
     private static final Logger log = Logger.getLogger(ServerProxy.class);
 
+    // The bound of the notifications held for credits or a fetch.
+    private static final int NOTIFICATION_QUEUE_SIZE = 1024;
+    private static final int DEFAULT_MARSHALLED_NOTIFICATION_CACHE_SIZE = 64;
+    private static final long DEFAULT_NOTIFICATION_MAX_YIELD = 20;
+    // The size of the chunks a notification is written in, the notification yields to responses between the chunks.
+    private static final int NOTIFICATION_CHUNK_SIZE = 8192;
+
+    // Shared by all connections so a notification sent to many clients is only marshalled once.
+    private static final MarshalledNotificationCache marshalledNotifications = new MarshalledNotificationCache(
+            Integer.getInteger(NOTIFICATION_MARSHALLED_CACHE_SIZE, DEFAULT_MARSHALLED_NOTIFICATION_CACHE_SIZE));
+
     private final Channel channel;
     private final WrappedMBeanServerConnection server;
     private UUID connectionId;
@@ -119,20 +151,45 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
     // Registry of handlers for the incoming messages.
     private final Map<Byte, Common.MessageHandler> handlerRegistry;
     private final RemoteNotificationManager remoteNotificationManager;
+    private final NotificationSender notificationSender;
+    private final ResponsePriority responsePriority;
+    private final byte version;
+    private volatile ClassLoaderCache classLoaderCache;
+    // Guarded by this
+    private boolean ended = false;
 
     ServerProxy(final Channel channel, final WrappedMBeanServerConnection server, final Executor executor,
-            final ServerMessageInterceptor serverMessageInterceptor) {
+            final ServerMessageInterceptor serverMessageInterceptor, final byte version) {
         super(channel, executor, serverMessageInterceptor);
         this.channel = channel;
         this.server = server;
+        this.version = version;
         handlerRegistry = createHandlerRegistry();
         this.remoteNotificationManager = new RemoteNotificationManager();
+        this.notificationSender = VersionThree.isVersionThree(version) ? new NotificationSender() : null;
+        long maxYield = Long.getLong(NOTIFICATION_MAX_YIELD, DEFAULT_NOTIFICATION_MAX_YIELD);
+        this.responsePriority = notificationSender != null && maxYield > 0 ? new ResponsePriority(maxYield) : null;
         this.executor = executor;
     }
 
+    @Override
+    protected void write(MessageWriter writer) throws IOException {
+        if (responsePriority == null) {
+            super.write(writer);
+            return;
+        }
+
+        responsePriority.responseStarted();
+        try {
+            super.write(writer);
+        } finally {
+            responsePriority.responseComplete();
+        }
+    }
+
     private Map<Byte, Common.MessageHandler> createHandlerRegistry() {
         Map<Byte, Common.MessageHandler> registry = new HashMap<Byte, Common.MessageHandler>();
-        registry.put(ADD_NOTIFICATION_LISTENER, new AddNotificationListenerHandler());
+        registry.put(ADD_NOTIFICATION_LISTENER, new AddNotificationListenerHandler(ADD_NOTIFICATION_LISTENER));
         registry.put(CREATE_MBEAN, new CreateMBeanHandler());
         registry.put(GET_ATTRIBUTE, new GetAttributeHandler());
         registry.put(GET_ATTRIBUTES, new GetAttributesHandler());
@@ -150,6 +207,15 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
         registry.put(SET_ATTRIBUTE, new SetAttributeHandler());
         registry.put(SET_ATTRIBUTES, new SetAttributesHandler());
         registry.put(UNREGISTER_MBEAN, new UnregisterMBeanHandler());
+        if (VersionThree.isVersionThree(version)) {
+            registry.put(CANCEL, new CancelHandler());
+            registry.put(PING, new PingHandler());
+            registry.put(FETCH_NOTIFICATIONS, new FetchNotificationsHandler());
+            registry.put(PATTERN_NOTIFICATION_LISTENER, new AddNotificationListenerHandler(PATTERN_NOTIFICATION_LISTENER));
+            registry.put(ADD_NOTIFICATION_LISTENERS, new AddNotificationListenersHandler());
+            registry.put(CREDITED_NOTIFICATION_LISTENER, new AddNotificationListenerHandler(CREDITED_NOTIFICATION_LISTENER));
+            registry.put(NOTIFICATION_CREDITS, new NotificationCreditsHandler());
+        }
 
         return Collections.unmodifiableMap(registry);
     }
@@ -161,7 +227,10 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
 
     @Override
     void end() {
+        // The client has gone so there is no point completing any requests still in progress.
+        cancelAllRequests();
         remoteNotificationManager.removeNotificationListener();
+        releaseClassLoaderCache();
         server.connectionClosed(this);
     }
 
@@ -193,40 +262,236 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
     /**
      * Manager to maintain the list of remote notifications and to pass these notifications back to the clients.
      */
+    /**
+     * The notification listeners registered on behalf of the client.
+     *
+     * The listeners are held in a concurrent map and the MBeanServer is never called whilst holding a lock, a slow
+     * registration therefore only delays the requests that made it.
+     *
+     * From version three listeners registered by the client on the same ObjectName with equal filters share a single
+     * {@link Subscription}, the subscription is registered with the MBeanServer once and each notification is sent to the
+     * client once along with the IDs of all of the listeners sharing the subscription.
+     */
     private class RemoteNotificationManager {
 
-        private Map<Integer, Association> listeners = new HashMap<Integer, Association>();
+        // The number of subscriptions removed by each task when the connection ends.
+        private static final int REMOVAL_BATCH_SIZE = 64;
+
+        private final boolean shareSubscriptions = VersionThree.isVersionThree(version);
+        private final ConcurrentMap<Integer, Subscription> listeners = new ConcurrentHashMap<Integer, Subscription>();
+        private final ConcurrentMap<SubscriptionKey, Subscription> subscriptions = new ConcurrentHashMap<SubscriptionKey, Subscription>();
+        // Registrations for a single listener ID that are never shared.
+        private final ConcurrentMap<Integer, DedicatedSubscription> dedicated = new ConcurrentHashMap<Integer, DedicatedSubscription>();
+        private volatile boolean closed = false;
+
+        private void addNotificationListener(ObjectName name, int listenerId, NotificationFilter filter, Object handback)
+                throws InstanceNotFoundException, IOException {
+            Subscription subscription = shareSubscriptions ? joinSubscription(name, listenerId, filter) : null;
+            if (subscription == null) {
+                subscription = new Subscription(null, name, filter, handback, listenerId);
+                register(subscription);
+            }
+            listeners.put(listenerId, subscription);
 
-        private synchronized void addNotificationListener(ObjectName name, int listenerId, NotificationFilter filter,
-                Object handback) throws InstanceNotFoundException, IOException {
-            NotificationProxy proxy = new NotificationProxy(listenerId);
-            server.getMBeanServerConnection().addNotificationListener(name, proxy, filter, handback);
-            Association association = new Association();
-            association.name = name;
-            association.listener = proxy;
-            association.filter = filter;
-            association.handback = handback;
-            listeners.put(listenerId, association);
+            if (closed && listeners.remove(listenerId, subscription)) {
+                // The connection ended whilst the listener was being added.
+                leaveSubscription(subscription, listenerId);
+            }
         }
 
-        private synchronized void removeNotificationListener() {
-            Iterator<Integer> keys = listeners.keySet().iterator();
-            int[] all = new int[listeners.size()];
-            for (int i = 0; i < all.length; i++) {
-                all[i] = keys.next();
+        /**
+         * Add a listener to all MBeans matching the ObjectName pattern, both those registered now and any registered later.
+         */
+        private void addPatternListener(ObjectName pattern, int listenerId, NotificationFilter filter)
+                throws InstanceNotFoundException, IOException {
+            addDedicated(listenerId, new PatternSubscription(pattern, filter, listenerId));
+        }
+
+        /**
+         * Add a listener that is only sent notifications whilst the client has granted it credits.
+         */
+        private void addCreditedListener(ObjectName name, int listenerId, NotificationFilter filter)
+                throws InstanceNotFoundException, IOException {
+            addDedicated(listenerId, new CreditedSubscription(name, filter, listenerId));
+        }
+
+        private void addDedicated(final int listenerId, final DedicatedSubscription subscription)
+                throws InstanceNotFoundException, IOException {
+            dedicated.put(listenerId, subscription);
+            boolean started = false;
+            try {
+                subscription.start();
+                started = true;
+            } finally {
+                if (started == false && dedicated.remove(listenerId, subscription)) {
+                    subscription.stop();
+                }
             }
 
-            removeNotificationListeners(all);
+            if (closed && dedicated.remove(listenerId, subscription)) {
+                // The connection ended whilst the listener was being added.
+                subscription.stop();
+            }
         }
 
-        private synchronized void removeNotificationListener(int listenerId) throws ListenerNotFoundException,
-                InstanceNotFoundException, IOException {
-            Association association = listeners.remove(listenerId);
-            if (association != null) {
-                server.getMBeanServerConnection().removeNotificationListener(association.name, association.listener,
-                        association.filter, association.handback);
+        private void grantCredits(final int listenerId, final int credits) {
+            DedicatedSubscription subscription = dedicated.get(listenerId);
+            if (subscription instanceof CreditedSubscription) {
+                ((CreditedSubscription) subscription).grant(credits);
             } else {
+                // The listener may have been removed whilst the credits were in transit.
+                log.debugf("Credits received for listener %d which does not use credits.", listenerId);
+            }
+        }
+
+        /**
+         * Add the listener to the existing subscription for the ObjectName and filter, if there is no existing subscription a new
+         * one is created and registered.
+         *
+         * @return The subscription the listener was added to.
+         */
+        private Subscription joinSubscription(ObjectName name, int listenerId, NotificationFilter filter)
+                throws InstanceNotFoundException, IOException {
+            SubscriptionKey key = new SubscriptionKey(name, filter);
+            while (true) {
+                Subscription existing = subscriptions.get(key);
+                if (existing == null) {
+                    Subscription created = new Subscription(key, name, filter, null, listenerId);
+                    existing = subscriptions.putIfAbsent(key, created);
+                    if (existing == null) {
+                        try {
+                            register(created);
+                        } finally {
+                            if (created.isRegistered() == false) {
+                                subscriptions.remove(key, created);
+                            }
+                        }
+                        return created;
+                    }
+                }
+                if (existing.join(listenerId)) {
+                    return existing;
+                }
+                // The existing subscription failed or was removed, wait for it to leave the map before trying again.
+                subscriptions.remove(key, existing);
+            }
+        }
+
+        private void register(final Subscription subscription) throws InstanceNotFoundException, IOException {
+            boolean registered = false;
+            try {
+                server.getMBeanServerConnection().addNotificationListener(subscription.name, subscription,
+                        subscription.filter, subscription.handback);
+                registered = true;
+            } finally {
+                subscription.registrationComplete(registered);
+            }
+        }
+
+        /**
+         * Remove the listener from its subscription, once no listeners remain the subscription is removed from the MBeanServer.
+         */
+        private void leaveSubscription(final Subscription subscription, final int listenerId) {
+            if (subscription.leave(listenerId)) {
+                if (subscription.key != null) {
+                    subscriptions.remove(subscription.key, subscription);
+                }
+                unregister(subscription);
+            }
+        }
+
+        /**
+         * Remove all listeners as the connection has ended, the subscriptions are removed in batches using the executor.
+         */
+        private void removeNotificationListener() {
+            closed = true;
+
+            List<Subscription> batch = new ArrayList<Subscription>(REMOVAL_BATCH_SIZE);
+            for (Integer current : listeners.keySet()) {
+                Subscription subscription = listeners.remove(current);
+                if (subscription != null && subscription.leave(current)) {
+                    if (subscription.key != null) {
+                        subscriptions.remove(subscription.key, subscription);
+                    }
+                    batch.add(subscription);
+                    if (batch.size() == REMOVAL_BATCH_SIZE) {
+                        unregister(batch);
+                        batch = new ArrayList<Subscription>(REMOVAL_BATCH_SIZE);
+                    }
+                }
+            }
+            if (batch.isEmpty() == false) {
+                unregister(batch);
+            }
+
+            for (Integer current : dedicated.keySet()) {
+                final DedicatedSubscription subscription = dedicated.remove(current);
+                if (subscription != null) {
+                    Runnable task = new Runnable() {
+
+                        @Override
+                        public void run() {
+                            subscription.stop();
+                        }
+                    };
+
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        task.run();
+                    }
+                }
+            }
+        }
+
+        private void unregister(final List<Subscription> batch) {
+            Runnable task = new Runnable() {
+
+                @Override
+                public void run() {
+                    for (Subscription current : batch) {
+                        unregister(current);
+                    }
+                }
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+
+        private void unregister(final Subscription subscription) {
+            try {
+                server.getMBeanServerConnection().removeNotificationListener(subscription.name, subscription,
+                        subscription.filter, subscription.handback);
+            } catch (ListenerNotFoundException e) {
+                log.warn("Failure removing notification listener", e);
+            } catch (InstanceNotFoundException e) {
+                log.warn("Failure removing notification listener", e);
+            } catch (IOException e) {
+                log.warn("Failure removing notification listener", e);
+            }
+        }
+
+        private void removeNotificationListener(int listenerId) throws ListenerNotFoundException, InstanceNotFoundException,
+                IOException {
+            DedicatedSubscription registration = dedicated.remove(listenerId);
+            if (registration != null) {
+                registration.stop();
+                return;
+            }
+
+            Subscription subscription = listeners.remove(listenerId);
+            if (subscription == null) {
                 log.warnf("Request to removeNotificationListener, listener with ID %d not found.", listenerId);
+            } else if (subscription.leave(listenerId)) {
+                if (subscription.key != null) {
+                    subscriptions.remove(subscription.key, subscription);
+                }
+                server.getMBeanServerConnection().removeNotificationListener(subscription.name, subscription,
+                        subscription.filter, subscription.handback);
             }
         }
 
@@ -244,15 +509,111 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
             }
         }
 
-        private class NotificationProxy implements NotificationListener {
-            private final int listenerId;
+        /**
+         * A single registration with the MBeanServer shared by one or more of the client's listeners.
+         */
+        private class Subscription implements NotificationListener {
+
+            private final SubscriptionKey key;
+            private final ObjectName name;
+            private final NotificationFilter filter;
+            private final Object handback;
+            // Replaced as listeners join and leave so notifications can read it without locking.
+            private volatile int[] listenerIds;
+            // Guarded by this
+            private boolean registering = true;
+            private boolean active = false;
+
+            private Subscription(final SubscriptionKey key, final ObjectName name, final NotificationFilter filter,
+                    final Object handback, final int listenerId) {
+                this.key = key;
+                this.name = name;
+                this.filter = filter;
+                this.handback = handback;
+                this.listenerIds = new int[] { listenerId };
+            }
+
+            private synchronized void registrationComplete(final boolean registered) {
+                registering = false;
+                active = registered;
+                notifyAll();
+            }
+
+            private synchronized boolean isRegistered() {
+                return active;
+            }
+
+            /**
+             * Add a listener to this subscription, waiting for the subscription to be registered if that is still in progress.
+             *
+             * @return true if the listener was added, false if this subscription is no longer active.
+             */
+            private synchronized boolean join(final int listenerId) throws IOException {
+                while (registering) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                if (active == false) {
+                    return false;
+                }
+
+                int[] current = listenerIds;
+                int[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = listenerId;
+                listenerIds = updated;
 
-            private NotificationProxy(final int listenerId) {
-                this.listenerId = listenerId;
+                return true;
+            }
+
+            /**
+             * Remove a listener from this subscription.
+             *
+             * @return true if this was the last listener and the subscription should now be removed from the MBeanServer.
+             */
+            private synchronized boolean leave(final int listenerId) {
+                int[] current = listenerIds;
+                int index = -1;
+                for (int i = 0; index < 0 && i < current.length; i++) {
+                    if (current[i] == listenerId) {
+                        index = i;
+                    }
+                }
+                if (index < 0) {
+                    return false;
+                }
+
+                int[] updated = new int[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, updated.length - index);
+                listenerIds = updated;
+
+                if (updated.length == 0 && active) {
+                    active = false;
+                    return true;
+                }
+                return false;
             }
 
             public void handleNotification(final Notification notification, final Object handback) {
+                if (closed) {
+                    // The listener is being removed as the client has gone.
+                    return;
+                }
+                final int[] currentIds = listenerIds;
+                if (currentIds.length == 0) {
+                    return;
+                }
+
                 // Just send the notification to the client and let the client deal with it.
+                if (notificationSender != null) {
+                    // From version three the handback is not sent, the client retains its own handback.
+                    notificationSender.send(currentIds, notification);
+                    return;
+                }
 
                 // By using the executor we can return the thread back to the NotificationBroadcaster quickly.
                 executor.execute(new Runnable() {
@@ -260,9 +621,9 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
                     @Override
                     public void run() {
                         try {
-                            writeNotification(listenerId, notification, handback);
+                            writeNotification(currentIds[0], notification, handback);
                         } catch (IOException e) {
-                            log.warnf("Unable to send notification to listener %d", listenerId);
+                            log.warnf("Unable to send notification to listener %d", currentIds[0]);
                         }
 
                     }
@@ -270,11 +631,352 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
             }
         }
 
-        private class Association {
-            private ObjectName name;
-            private NotificationListener listener;
-            private NotificationFilter filter;
-            private Object handback;
+        /**
+         * A listener registered with every MBean matching an ObjectName pattern, the MBeanServerDelegate is used to follow MBeans
+         * as they are registered and unregistered. Only used from version three so notifications are always sent using the
+         * NotificationSender.
+         */
+        private class PatternSubscription implements DedicatedSubscription, NotificationListener {
+
+            private final ObjectName pattern;
+            private final NotificationFilter filter;
+            private final int[] listenerIds;
+            private final Set<ObjectName> attached = ConcurrentHashMap.newKeySet();
+            private volatile boolean stopped = false;
+
+            private final NotificationListener registrationListener = new NotificationListener() {
+
+                @Override
+                public void handleNotification(final Notification notification, final Object handback) {
+                    if (notification instanceof MBeanServerNotification == false) {
+                        return;
+                    }
+                    ObjectName name = ((MBeanServerNotification) notification).getMBeanName();
+                    if (pattern.apply(name) == false) {
+                        return;
+                    }
+
+                    if (MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType())) {
+                        attach(name);
+                    } else if (MBeanServerNotification.UNREGISTRATION_NOTIFICATION.equals(notification.getType())) {
+                        // The MBeanServer has already discarded the listener.
+                        attached.remove(name);
+                    }
+                }
+            };
+
+            private PatternSubscription(final ObjectName pattern, final NotificationFilter filter, final int listenerId) {
+                this.pattern = pattern;
+                this.filter = filter;
+                this.listenerIds = new int[] { listenerId };
+            }
+
+            /**
+             * Follow registrations with the delegate before querying the existing MBeans so no MBean can be missed, an MBean seen
+             * by both is only attached to once.
+             */
+            public void start() throws IOException {
+                MBeanServerConnection connection = server.getMBeanServerConnection();
+                try {
+                    connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, registrationListener, null, null);
+                } catch (InstanceNotFoundException e) {
+                    throw new IOException(e);
+                }
+
+                for (ObjectName current : connection.queryNames(pattern, null)) {
+                    attach(current);
+                }
+            }
+
+            private void attach(final ObjectName name) {
+                if (stopped || attached.add(name) == false) {
+                    return;
+                }
+
+                try {
+                    server.getMBeanServerConnection().addNotificationListener(name, this, filter, null);
+                } catch (InstanceNotFoundException e) {
+                    // Unregistered since it was seen.
+                    attached.remove(name);
+                    return;
+                } catch (IOException e) {
+                    attached.remove(name);
+                    log.warnf(e, "Unable to add pattern listener to %s", name);
+                    return;
+                } catch (RuntimeException e) {
+                    // Matching MBeans that are not NotificationBroadcasters are skipped.
+                    attached.remove(name);
+                    log.tracef(e, "Unable to add pattern listener to %s", name);
+                    return;
+                }
+
+                if (stopped) {
+                    // Stopped whilst the listener was being added, stop may not have seen this MBean.
+                    detach(name);
+                }
+            }
+
+            private void detach(final ObjectName name) {
+                try {
+                    server.getMBeanServerConnection().removeNotificationListener(name, this, filter, null);
+                } catch (ListenerNotFoundException e) {
+                    log.tracef(e, "Pattern listener already removed from %s", name);
+                } catch (InstanceNotFoundException e) {
+                    log.tracef(e, "Pattern listener already removed from %s", name);
+                } catch (IOException e) {
+                    log.warn("Failure removing notification listener", e);
+                }
+            }
+
+            public void stop() {
+                stopped = true;
+                try {
+                    server.getMBeanServerConnection().removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME,
+                            registrationListener, null, null);
+                } catch (ListenerNotFoundException e) {
+                    log.tracef(e, "Registration listener already removed for pattern %s", pattern);
+                } catch (InstanceNotFoundException e) {
+                    log.tracef(e, "Registration listener already removed for pattern %s", pattern);
+                } catch (IOException e) {
+                    log.warn("Failure removing notification listener", e);
+                }
+
+                for (ObjectName current : attached) {
+                    if (attached.remove(current)) {
+                        detach(current);
+                    }
+                }
+            }
+
+            public void handleNotification(final Notification notification, final Object handback) {
+                if (closed || stopped) {
+                    return;
+                }
+
+                notificationSender.send(listenerIds, notification);
+            }
+        }
+
+        /**
+         * A listener registered with a single MBean that only sends notifications to the client whilst it holds credits granted by
+         * the client, notifications arriving without credits are held until credits are granted. Only used from version three so
+         * notifications are always sent using the NotificationSender.
+         */
+        private class CreditedSubscription implements DedicatedSubscription, NotificationListener {
+
+            private final ObjectName name;
+            private final NotificationFilter filter;
+            private final int[] listenerIds;
+            private final int maxPending = NOTIFICATION_QUEUE_SIZE;
+            // Guarded by this
+            private final ArrayDeque<Notification> pending = new ArrayDeque<Notification>();
+            private long credits = 0;
+            private boolean stopped = false;
+
+            private CreditedSubscription(final ObjectName name, final NotificationFilter filter, final int listenerId) {
+                this.name = name;
+                this.filter = filter;
+                this.listenerIds = new int[] { listenerId };
+            }
+
+            public void start() throws InstanceNotFoundException, IOException {
+                server.getMBeanServerConnection().addNotificationListener(name, this, filter, null);
+            }
+
+            public void stop() {
+                synchronized (this) {
+                    stopped = true;
+                    pending.clear();
+                }
+                try {
+                    server.getMBeanServerConnection().removeNotificationListener(name, this, filter, null);
+                } catch (ListenerNotFoundException e) {
+                    log.tracef(e, "Credited listener already removed from %s", name);
+                } catch (InstanceNotFoundException e) {
+                    log.tracef(e, "Credited listener already removed from %s", name);
+                } catch (IOException e) {
+                    log.warn("Failure removing notification listener", e);
+                }
+            }
+
+            /**
+             * Grant additional credits, Integer.MAX_VALUE grants unlimited credits.
+             */
+            private synchronized void grant(final int granted) {
+                if (granted == Integer.MAX_VALUE || credits > Long.MAX_VALUE - granted) {
+                    credits = Long.MAX_VALUE;
+                } else if (granted > 0) {
+                    credits += granted;
+                }
+
+                while (credits > 0 && pending.isEmpty() == false && stopped == false) {
+                    take();
+                    notificationSender.send(listenerIds, pending.pollFirst());
+                }
+            }
+
+            private void take() {
+                if (credits != Long.MAX_VALUE) {
+                    credits--;
+                }
+            }
+
+            public synchronized void handleNotification(final Notification notification, final Object handback) {
+                if (closed || stopped) {
+                    return;
+                }
+
+                if (credits > 0) {
+                    take();
+                    notificationSender.send(listenerIds, notification);
+                } else {
+                    pending.addLast(notification);
+                    if (pending.size() > maxPending) {
+                        pending.pollFirst();
+                        log.tracef("Discarding notification for listener %d which has no credits", listenerIds[0]);
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A registration for a single listener ID that is not shared with any other listener.
+     */
+    private interface DedicatedSubscription {
+
+        void start() throws InstanceNotFoundException, IOException;
+
+        void stop();
+
+    }
+
+    /**
+     * Key of the ObjectName and filter of a shared subscription, filters are compared using their equals method so only filters
+     * that implement equals can be shared, a null filter matches a null filter.
+     */
+    private static class SubscriptionKey {
+
+        private final ObjectName name;
+        private final NotificationFilter filter;
+        private final int hashCode;
+
+        private SubscriptionKey(final ObjectName name, final NotificationFilter filter) {
+            this.name = name;
+            this.filter = filter;
+            this.hashCode = name.hashCode() * 31 + (filter == null ? 0 : filter.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof SubscriptionKey == false) {
+                return false;
+            }
+            SubscriptionKey other = (SubscriptionKey) obj;
+            return name.equals(other.name) && (filter == null ? other.filter == null : filter.equals(other.filter));
+        }
+
+    }
+
+    /**
+     * A notification queued to be sent to the client for one or more listeners.
+     */
+    private static class QueuedNotification {
+
+        private final int[] listenerIds;
+        private final Notification notification;
+
+        private QueuedNotification(final int[] listenerIds, final Notification notification) {
+            this.listenerIds = listenerIds;
+            this.notification = notification;
+        }
+
+    }
+
+    /**
+     * Sends the notifications of this connection to the client one at a time in the order they were queued.
+     *
+     * Once the client has fetched notifications the connection switches to fetch mode, from then on notifications are only
+     * queued and are returned in response to the next fetch request.  In fetch mode the queue is bounded, if the client does not
+     * fetch often enough the oldest notifications are discarded.
+     */
+    private class NotificationSender implements Runnable {
+
+        // Guarded by this
+        private final ArrayDeque<QueuedNotification> queue = new ArrayDeque<QueuedNotification>();
+        private boolean sending = false;
+        private boolean fetching = false;
+
+        private synchronized void send(final int[] listenerIds, final Notification notification) {
+            queue.addLast(new QueuedNotification(listenerIds, notification));
+            startSending();
+        }
+
+        /**
+         * Take up to the maximum number of queued notifications, waiting up to the timeout if none are queued.
+         *
+         * @return The queued notifications in the order they were queued, empty if the timeout elapsed first.
+         */
+        private synchronized List<QueuedNotification> fetch(final int max, final long timeoutMillis)
+                throws InterruptedException {
+            fetching = true;
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long remaining = timeoutMillis;
+            while (queue.isEmpty() && remaining > 0) {
+                wait(remaining);
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+
+            List<QueuedNotification> fetched = new ArrayList<QueuedNotification>(Math.min(max, queue.size()));
+            while (fetched.size() < max && queue.isEmpty() == false) {
+                fetched.add(queue.pollFirst());
+            }
+
+            return fetched;
+        }
+
+        private void startSending() {
+            if (fetching) {
+                while (queue.size() > NOTIFICATION_QUEUE_SIZE) {
+                    queue.pollFirst();
+                    log.trace("Discarding notification not fetched by the client");
+                }
+                notifyAll();
+            } else if (sending == false && queue.isEmpty() == false) {
+                sending = true;
+                // By using the executor we can return the thread back to the NotificationBroadcaster quickly.
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            // A single yield budget for the whole pass so a burst of notifications is not delayed once per notification.
+            final long deadline = responsePriority != null ? responsePriority.yieldDeadline() : 0;
+            while (true) {
+                QueuedNotification next;
+                synchronized (this) {
+                    // If the client has switched to fetching the remaining notifications are left for it to fetch.
+                    next = fetching ? null : queue.pollFirst();
+                    if (next == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+
+                try {
+                    writeNotification(next.listenerIds, next.notification, deadline);
+                } catch (IOException e) {
+                    log.warn("Unable to send notification", e);
+                }
+            }
         }
 
     }
@@ -346,6 +1048,35 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
 
     }
 
+    private void writeResponse(final List<QueuedNotification> response, final byte inResponseTo,
+            final int correlationId) throws IOException {
+        write(new MessageWriter() {
+
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(inResponseTo ^ RESPONSE_MASK);
+                output.writeInt(correlationId);
+                output.writeByte(SUCCESS);
+                output.writeByte(NOTIFICATION_ARRAY);
+                output.writeInt(response.size());
+
+                Marshaller marshaller = prepareForMarshalling(output);
+                for (QueuedNotification current : response) {
+                    marshaller.writeInt(current.listenerIds.length);
+                    for (int currentId : current.listenerIds) {
+                        marshaller.writeInt(currentId);
+                    }
+                    marshaller.writeObject(current.notification);
+                }
+                marshaller.finish();
+            }
+        });
+
+    }
+
+    /**
+     * Send a notification to the client, before version three the handback is also sent.
+     */
     private void writeNotification(final int listenerId, final Notification notification, final Object handback)
             throws IOException {
         write(new MessageWriter() {
@@ -372,11 +1103,82 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
 
     }
 
+    private final MarshalledNotificationCache.NotificationMarshaller notificationMarshaller = new MarshalledNotificationCache.NotificationMarshaller() {
+
+        @Override
+        public byte[] marshal(Notification notification) throws IOException {
+            ByteArrayOutputStream marshalled = new ByteArrayOutputStream();
+            Marshaller marshaller = prepareForMarshalling(new DataOutputStream(marshalled));
+            marshaller.writeObject(notification);
+            marshaller.finish();
+
+            return marshalled.toByteArray();
+        }
+    };
+
+    /**
+     * Send a notification to the client once for all of the listeners it is for, this is used from version three.
+     *
+     * As the handback is not sent the marshalled notification is the same for every connection so is obtained from the
+     * {@link MarshalledNotificationCache}.
+     */
+    private void writeNotification(final int[] listenerIds, final Notification notification, final long deadline)
+            throws IOException {
+        final byte[] marshalled = marshalledNotifications.getMarshalled(notification, notificationMarshaller);
+        if (responsePriority != null) {
+            // Wait before the message is opened so a response being written has the channel to itself.
+            responsePriority.awaitResponses(deadline);
+        }
+        // Not passed through write(MessageWriter) as a notification is not a response.
+        super.write(new MessageWriter() {
+
+            @Override
+            public void write(DataOutput output) throws IOException {
+                output.writeByte(SEND_NOTIFICATION);
+                output.writeInt(0x00);
+
+                if (listenerIds.length == 1) {
+                    output.writeByte(INTEGER);
+                    output.writeInt(listenerIds[0]);
+                } else {
+                    output.writeByte(INTEGER_ARRAY);
+                    output.writeInt(listenerIds.length);
+                    for (int current : listenerIds) {
+                        output.writeInt(current);
+                    }
+                }
+
+                output.writeByte(NOTIFICATION);
+                if (responsePriority == null) {
+                    output.write(marshalled);
+                    return;
+                }
+
+                for (int offset = 0; offset < marshalled.length; offset += NOTIFICATION_CHUNK_SIZE) {
+                    if (offset > 0) {
+                        responsePriority.awaitResponses(deadline);
+                    }
+                    output.write(marshalled, offset, Math.min(NOTIFICATION_CHUNK_SIZE, marshalled.length - offset));
+                }
+            }
+        });
+
+    }
+
     private class AddNotificationListenerHandler implements Common.MessageHandler {
 
+        // Either ADD_NOTIFICATION_LISTENER or PATTERN_NOTIFICATION_LISTENER, the payload of both is the same.
+        private final byte messageType;
+
+        private AddNotificationListenerHandler(final byte messageType) {
+            this.messageType = messageType;
+        }
+
         @Override
         public void handle(DataInput input, int correlationId) throws IOException {
-            log.trace("AddNotificationListener");
+            final boolean pattern = messageType == PATTERN_NOTIFICATION_LISTENER;
+            final boolean credited = messageType == CREDITED_NOTIFICATION_LISTENER;
+            log.tracef("AddNotificationListener (pattern=%b, credited=%b)", pattern, credited);
 
             byte paramType = input.readByte();
             if (paramType != OBJECT_NAME) {
@@ -398,7 +1200,7 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
                 if (paramType == INTEGER) {
                     remoteNotification = true;
                     listenerId = unmarshaller.readInt();
-                } else if (paramType == OBJECT_NAME) {
+                } else if (paramType == OBJECT_NAME && pattern == false && credited == false) {
                     remoteNotification = false;
                     listener = unmarshaller.readObject(ObjectName.class);
                 } else {
@@ -411,32 +1213,136 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
                 }
                 filter = unmarshaller.readObject(NotificationFilter.class);
 
-                paramType = unmarshaller.readByte();
-                if (paramType != OBJECT) {
-                    throw new IOException("Unexpected paramType");
+                if (remoteNotification && VersionThree.isVersionThree(version)) {
+                    // The handback of a remote listener is retained by the client.
+                    handback = null;
+                } else {
+                    paramType = unmarshaller.readByte();
+                    if (paramType != OBJECT) {
+                        throw new IOException("Unexpected paramType");
+                    }
+                    handback = unmarshaller.readObject();
                 }
-                handback = unmarshaller.readObject();
             } catch (ClassNotFoundException cnfe) {
                 throw new IOException(cnfe);
             }
 
             try {
-                if (remoteNotification) {
+                if (pattern) {
+                    remoteNotificationManager.addPatternListener(name, listenerId, filter);
+                } else if (credited) {
+                    remoteNotificationManager.addCreditedListener(name, listenerId, filter);
+                } else if (remoteNotification) {
                     remoteNotificationManager.addNotificationListener(name, listenerId, filter, handback);
                 } else {
                     server.getMBeanServerConnection().addNotificationListener(name, listener, filter, handback);
                 }
 
-                writeResponse(ADD_NOTIFICATION_LISTENER, correlationId);
+                writeResponse(messageType, correlationId);
 
                 log.tracef("[%d] AddNotificationListener - Success Response Sent", correlationId);
             } catch (InstanceNotFoundException e) {
-                writeResponse(e, ADD_NOTIFICATION_LISTENER, correlationId);
+                writeResponse(e, messageType, correlationId);
                 log.tracef("[%d] AddNotificationListener - Failure Response Sent", correlationId);
             }
         }
     }
 
+    private class AddNotificationListenersHandler implements Common.MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            log.trace("AddNotificationListeners");
+
+            byte paramType = input.readByte();
+            if (paramType != INTEGER) {
+                throw new IOException("Unexpected paramType");
+            }
+            int count = input.readInt();
+            if (count < 0) {
+                throw new IOException("Invalid count received.");
+            }
+
+            ObjectName[] names = new ObjectName[count];
+            int[] listenerIds = new int[count];
+            NotificationFilter[] filters = new NotificationFilter[count];
+            Unmarshaller unmarshaller = prepareForUnMarshalling(input);
+            try {
+                for (int i = 0; i < count; i++) {
+                    names[i] = unmarshaller.readObject(ObjectName.class);
+                    listenerIds[i] = unmarshaller.readInt();
+                    filters[i] = unmarshaller.readObject(NotificationFilter.class);
+                }
+            } catch (ClassNotFoundException cnfe) {
+                throw new IOException(cnfe);
+            }
+
+            // Each listener is added independently, a failure is reported as the outcome of that listener only.
+            Object[] outcomes = new Object[count];
+            for (int i = 0; i < count; i++) {
+                try {
+                    if (names[i].isPattern()) {
+                        remoteNotificationManager.addPatternListener(names[i], listenerIds[i], filters[i]);
+                    } else {
+                        remoteNotificationManager.addNotificationListener(names[i], listenerIds[i], filters[i], null);
+                    }
+                } catch (InstanceNotFoundException e) {
+                    outcomes[i] = e;
+                } catch (IOException e) {
+                    outcomes[i] = e;
+                } catch (RuntimeException e) {
+                    outcomes[i] = e;
+                }
+            }
+
+            writeResponse(outcomes, OBJECT_ARRAY, ADD_NOTIFICATION_LISTENERS, correlationId);
+            log.tracef("[%d] AddNotificationListeners - Response Sent", correlationId);
+        }
+    }
+
+    private class CancelHandler extends MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            log.tracef("[%d] Cancel", correlationId);
+            cancelRequest(correlationId);
+        }
+
+        @Override
+        boolean handleImmediately() {
+            // The request being cancelled may still be waiting for the executor so this can not wait as well.
+            return true;
+        }
+
+    }
+
+    private class NotificationCreditsHandler extends MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            byte paramType = input.readByte();
+            if (paramType != INTEGER) {
+                throw new IOException("Unexpected paramType");
+            }
+            int listenerId = input.readInt();
+            paramType = input.readByte();
+            if (paramType != INTEGER) {
+                throw new IOException("Unexpected paramType");
+            }
+            int credits = input.readInt();
+            log.tracef("NotificationCredits %d for listener %d", credits, listenerId);
+
+            remoteNotificationManager.grantCredits(listenerId, credits);
+        }
+
+        @Override
+        boolean handleImmediately() {
+            // Granting credits only queues notifications so there is no need to wait for the executor.
+            return true;
+        }
+
+    }
+
     private class CreateMBeanHandler implements Common.MessageHandler {
 
         @Override
@@ -560,23 +1466,7 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
             MBeanServerConnection connection = server.getMBeanServerConnection();
             if (connection instanceof MBeanServer) {
                 final MBeanServer server = (MBeanServer) connection;
-                //This privileged block is needed!
-                //This classloader switch is an internal call to do other things.
-                //When running WildFly with RBAC, normally, if there is a subject, only superuser
-                //or administrator can call this method on the MBeanServer, meaning that the 'other things' will fail.
-                //Tbe privileged block clears the subject so the internal call will work
-                ClassLoader loader = AccessController.doPrivileged(new PrivilegedExceptionAction<ClassLoader>() {
-                    @Override
-                    public ClassLoader run() throws Exception {
-                        ClassLoader loader = server.getClassLoaderFor(name);
-                        //if the loader was null, chances are it was the bootstrap classloader so try that
-                        if (loader == null){
-                            loader = ClassLoader.getSystemClassLoader();
-                        }
-                        return loader;
-                    }
-                });
-                resolver.switchClassLoader(loader);
+                resolver.switchClassLoader(getClassLoaderCache(server).getClassLoaderFor(server, name));
             }
         } catch (Exception e) {
             log.debugf(e, "Could not get class loader for %s", name);
@@ -588,30 +1478,49 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
             MBeanServerConnection connection = server.getMBeanServerConnection();
             if (connection instanceof MBeanServer) {
                 final MBeanServer server = (MBeanServer) connection;
-                //This privileged block is needed!
-                //This classloader switch is an internal call to do other things.
-                //When running WildFly with RBAC, normally, if there is a subject, only superuser
-                //or administrator can call this method on the MBeanServer, meaning that the 'other things' will fail.
-                //Tbe privileged block clears the subject so the internal call will work
-                ClassLoader loader = AccessController.doPrivileged(new PrivilegedExceptionAction<ClassLoader>() {
-                    @Override
-                    public ClassLoader run() throws Exception {
-                        ClassLoader loader = server.getClassLoader(name);
-                        //if the loader was null, chances are it was the bootstrap classloader so try that
-                        if (loader == null){
-                            loader = ClassLoader.getSystemClassLoader();
-                        }
-                        return loader;
-                    }
-                });
-
-                resolver.switchClassLoader(loader);
+                resolver.switchClassLoader(getClassLoaderCache(server).getClassLoader(server, name));
             }
         } catch (Exception e) {
             log.debugf(e, "Could not get class loader for %s", name);
         }
     }
 
+    private ClassLoaderCache getClassLoaderCache(final MBeanServer server) {
+        // The cache is shared by all connections to the MBeanServer, a reference is held here to avoid the global lookup
+        // for every request.
+        ClassLoaderCache cache = classLoaderCache;
+        if (cache != null && cache.isCacheFor(server)) {
+            return cache;
+        }
+
+        synchronized (this) {
+            cache = classLoaderCache;
+            if (cache == null || cache.isCacheFor(server) == false) {
+                ClassLoaderCache previous = cache;
+                cache = ClassLoaderCache.getCache(server);
+                if (ended) {
+                    // A request still running as the connection ended, the reference must not outlive the connection.
+                    cache.release();
+                    return cache;
+                }
+                classLoaderCache = cache;
+                if (previous != null) {
+                    previous.release();
+                }
+            }
+
+            return cache;
+        }
+    }
+
+    private synchronized void releaseClassLoaderCache() {
+        ended = true;
+        if (classLoaderCache != null) {
+            classLoaderCache.release();
+            classLoaderCache = null;
+        }
+    }
+
     private class GetDefaultDomainHandler implements Common.MessageHandler {
 
         @Override
@@ -962,6 +1871,55 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
         }
     }
 
+    private class PingHandler extends MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            log.trace("Ping");
+            writeResponse(PING, correlationId);
+        }
+
+        @Override
+        boolean handleImmediately() {
+            // A busy executor must not delay the response or the client will consider the connection to have failed.
+            return true;
+        }
+
+    }
+
+    private class FetchNotificationsHandler implements Common.MessageHandler {
+
+        @Override
+        public void handle(DataInput input, int correlationId) throws IOException {
+            log.trace("FetchNotifications");
+
+            byte paramType = input.readByte();
+            if (paramType != INTEGER) {
+                throw new IOException("Unexpected paramType");
+            }
+            int max = input.readInt();
+            paramType = input.readByte();
+            if (paramType != INTEGER) {
+                throw new IOException("Unexpected paramType");
+            }
+            int timeout = input.readInt();
+
+            List<QueuedNotification> fetched;
+            try {
+                fetched = notificationSender.fetch(max, timeout);
+            } catch (InterruptedException e) {
+                // The request has been cancelled so no response will be sent.
+                Thread.currentThread().interrupt();
+                fetched = Collections.emptyList();
+            }
+
+            writeResponse(fetched, FETCH_NOTIFICATIONS, correlationId);
+
+            log.tracef("[%d] FetchNotifications - Success Response Sent, %d notifications", correlationId, fetched.size());
+        }
+
+    }
+
     private class RemoveNotificationListenerHandler implements Common.MessageHandler {
 
         @Override
@@ -1253,29 +2211,44 @@ class ServerProxy extends ServerCommon implements VersionedProxy {
 
     /**
      * A mutable {@link org.jboss.marshalling.ClassResolver}
+     *
+     * A new instance is used for each request as the ClassLoader is switched part way through unmarshalling the request once
+     * the ObjectName has been read, requests on the same connection are handled concurrently so an instance can not be shared.
+     * The instance is a lightweight wrapper allocated alongside the Unmarshaller already created for each request, the
+     * resolved classes themselves are cached by the {@link CachedClassLoader}.
      */
     private class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
 
         private ClassLoader currentClassLoader;
+        private CachedClassLoader currentCachedClassLoader;
 
         ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
             this.currentClassLoader = classLoader;
         }
 
         /**
-         * Sets the passed <code>newCL</code> as the classloader which will be returned on subsequent calls to
-         * {@link #getClassLoader()}
+         * Sets the ClassLoader of the passed <code>newCL</code> as the classloader which will be returned on subsequent calls
+         * to {@link #getClassLoader()}, classes will be loaded using the cache of the <code>newCL</code>.
          *
          * @param newCL
          */
-        void switchClassLoader(final ClassLoader newCL) {
-            this.currentClassLoader = newCL;
+        void switchClassLoader(final CachedClassLoader newCL) {
+            this.currentClassLoader = newCL.getClassLoader();
+            this.currentCachedClassLoader = newCL;
         }
 
         @Override
         protected ClassLoader getClassLoader() {
             return this.currentClassLoader;
         }
+
+        @Override
+        protected Class<?> loadClass(final String name) throws ClassNotFoundException {
+            if (currentCachedClassLoader != null) {
+                return currentCachedClassLoader.loadClass(name);
+            }
+            return super.loadClass(name);
+        }
     }
 
-}
\ No newline at end of file
+}
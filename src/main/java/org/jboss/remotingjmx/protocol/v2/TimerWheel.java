@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel used to expire entries once their deadline has passed.
+ *
+ * Scheduling and cancelling an entry are both constant time operations, each tick only needs to check the entries in a single
+ * bucket.  An entry with a deadline beyond a single revolution of the wheel stays in its bucket until the revolution in which
+ * it is due.
+ *
+ * This class is not thread safe, the owner is responsible for synchronizing access.
+ */
+class TimerWheel<E extends TimerWheel.Entry> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Entry[] buckets;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * The next tick that has not yet been processed.
+     */
+    private long currentTick = 0;
+    private int size = 0;
+
+    TimerWheel(final long tickDuration, final TimeUnit unit, final int bucketCount) {
+        if (bucketCount <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("bucketCount must be a power of two");
+        }
+        tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        mask = bucketCount - 1;
+        buckets = new Entry[bucketCount];
+    }
+
+    /**
+     * Schedule an entry to expire once the delay has elapsed, the entry will not expire before the delay has elapsed but may
+     * expire up to one tick later.
+     */
+    void schedule(final E entry, final long delay, final TimeUnit unit) {
+        if (entry.bucket >= 0) {
+            throw new IllegalStateException("Entry already scheduled");
+        }
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(delay);
+        long tick = Math.max((deadline + tickNanos - 1) / tickNanos, currentTick);
+
+        int index = (int) (tick & mask);
+        entry.deadlineTick = tick;
+        entry.bucket = index;
+        entry.previous = null;
+        entry.next = buckets[index];
+        if (entry.next != null) {
+            entry.next.previous = entry;
+        }
+        buckets[index] = entry;
+        size++;
+    }
+
+    /**
+     * Cancel a scheduled entry.
+     *
+     * @return true if the entry was scheduled, false if it had already expired or been cancelled.
+     */
+    boolean cancel(final E entry) {
+        if (entry.bucket < 0) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the current time.
+     *
+     * @param expired - The list to add any entries whose deadline has passed to.
+     */
+    @SuppressWarnings("unchecked")
+    void expire(final List<? super E> expired) {
+        long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+        // If more than a full revolution has passed every bucket only needs to be checked once.
+        long lastTick = Math.min(nowTick, currentTick + buckets.length - 1);
+        for (long tick = currentTick; tick <= lastTick && size > 0; tick++) {
+            Entry current = buckets[(int) (tick & mask)];
+            while (current != null) {
+                Entry next = current.next;
+                if (current.deadlineTick <= nowTick) {
+                    unlink(current);
+                    expired.add((E) current);
+                }
+                current = next;
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick + 1);
+    }
+
+    /**
+     * @return The number of scheduled entries.
+     */
+    int size() {
+        return size;
+    }
+
+    private void unlink(final Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            buckets[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+        entry.bucket = -1;
+        size--;
+    }
+
+    /**
+     * The base class for entries that can be scheduled in the wheel, an entry can only be scheduled in a single wheel at a
+     * time.
+     */
+    abstract static class Entry {
+
+        Entry previous;
+        Entry next;
+        long deadlineTick;
+        int bucket = -1;
+
+    }
+
+}
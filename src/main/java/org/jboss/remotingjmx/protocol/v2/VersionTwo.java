@@ -52,14 +52,24 @@ public class VersionTwo {
 
     public static VersionedConnection getConnection(final Channel channel, final Map<String, ?> environment,
             final JMXServiceURL serviceURL) throws IOException {
-        ParameterConnection parameterConnection = new ParameterConnection(channel, environment, serviceURL);
+        ParameterConnection parameterConnection = new ParameterConnection(channel, environment, serviceURL,
+                getVersionIdentifier());
 
         return parameterConnection.getConnection();
     }
 
+    public static String beginRelay(final Channel channel, final Map<String, ?> environment, final JMXServiceURL serviceURL,
+            final int requestTimeout) throws IOException {
+        ParameterConnection parameterConnection = new ParameterConnection(channel, environment, serviceURL,
+                getVersionIdentifier());
+
+        return parameterConnection.beginRelay(requestTimeout);
+    }
+
     public static void startServer(final Channel channel, final MBeanServerManager mbeanServerManager, final Executor executor,
             final ServerMessageInterceptor serverMessageInterceptor) throws IOException {
-        ParameterProxy proxy = new ParameterProxy(channel, mbeanServerManager, executor, serverMessageInterceptor);
+        ParameterProxy proxy = new ParameterProxy(channel, mbeanServerManager, executor, serverMessageInterceptor,
+                getVersionIdentifier(), false);
         proxy.start();
     }
 
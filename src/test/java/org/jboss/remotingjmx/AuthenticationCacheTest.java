@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.auth.client.AuthenticationContext;
+
+/**
+ * Test case for the caching of parsed authentication configurations and the state resolved from them.
+ */
+public class AuthenticationCacheTest {
+
+    private static final String CONFIGURATION = "<configuration>" //
+            + "<authentication-client xmlns=\"urn:elytron:client:1.2\">" //
+            + "<authentication-rules><rule use-configuration=\"default\" /></authentication-rules>" //
+            + "<authentication-configurations><configuration name=\"default\"><set-user-name name=\"%s\" />" //
+            + "</configuration></authentication-configurations>" //
+            + "</authentication-client>" //
+            + "</configuration>";
+
+    private File configurationFile;
+
+    @Before
+    public void createConfiguration() throws IOException {
+        configurationFile = File.createTempFile("wildfly-config", ".xml");
+        writeConfiguration("user1");
+    }
+
+    @After
+    public void deleteConfiguration() {
+        configurationFile.delete();
+    }
+
+    private void writeConfiguration(final String userName) throws IOException {
+        FileWriter writer = new FileWriter(configurationFile);
+        try {
+            writer.write(String.format(CONFIGURATION, userName));
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testConfigurationCached() throws Exception {
+        URI configurationUri = configurationFile.toURI();
+
+        AuthenticationContext first = AuthenticationCache.getAuthenticationContext(configurationUri);
+        assertSame("Cached AuthenticationContext", first, AuthenticationCache.getAuthenticationContext(configurationUri));
+
+        // Once modified the configuration must be parsed again.
+        writeConfiguration("user2");
+        configurationFile.setLastModified(configurationFile.lastModified() + 10000);
+        AuthenticationContext second = AuthenticationCache.getAuthenticationContext(configurationUri);
+        assertNotSame("Reparsed AuthenticationContext", first, second);
+        assertSame("Cached AuthenticationContext", second, AuthenticationCache.getAuthenticationContext(configurationUri));
+    }
+
+    @Test
+    public void testResolvedConfigurationCached() throws Exception {
+        AuthenticationContext context = AuthenticationCache.getAuthenticationContext(configurationFile.toURI());
+        URI target = new URI("remote+http", null, "localhost", 9990, null, null, null);
+
+        AuthenticationCache.ResolvedConfiguration first = AuthenticationCache.getResolvedConfiguration(target, context);
+        AuthenticationCache.ResolvedConfiguration second = AuthenticationCache.getResolvedConfiguration(target, context);
+        assertSame("Cached AuthenticationConfiguration", first.getAuthenticationConfiguration(),
+                second.getAuthenticationConfiguration());
+        assertSame("Cached SSLContext", first.getSSLContext(), second.getSSLContext());
+    }
+
+}
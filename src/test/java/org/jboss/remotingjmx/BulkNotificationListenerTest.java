@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.Listener.Pair;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for adding and removing notification listeners on many MBeans using a single request.
+ */
+public class BulkNotificationListenerTest extends AbstractTestBase {
+
+    private static final int MBEAN_COUNT = 50;
+
+    private final ObjectName[] names = new ObjectName[MBEAN_COUNT];
+    private RemotingMBeanServerConnection connection;
+
+    @Before
+    public void register() throws Exception {
+        for (int i = 0; i < MBEAN_COUNT; i++) {
+            names[i] = new ObjectName(DEFAULT_DOMAIN + ":type=bulk,name=" + i);
+            mbeanServer.registerMBean(new NotificationBean(), names[i]);
+        }
+        connection = (RemotingMBeanServerConnection) connector.getMBeanServerConnection();
+    }
+
+    @After
+    public void unregister() throws Exception {
+        for (ObjectName current : names) {
+            mbeanServer.unregisterMBean(current);
+        }
+        connection = null;
+    }
+
+    @Test
+    public void testBulkAddAndRemove() throws Exception {
+        // The last entry is for an MBean that is not registered.
+        ObjectName[] targets = Arrays.copyOf(names, MBEAN_COUNT + 1);
+        targets[MBEAN_COUNT] = new ObjectName(DEFAULT_DOMAIN + ":type=bulk,name=missing");
+        Listener listener = new Listener();
+        NotificationListener[] listeners = new NotificationListener[targets.length];
+        Arrays.fill(listeners, listener);
+        Object[] handbacks = new Object[targets.length];
+        for (int i = 0; i < handbacks.length; i++) {
+            handbacks[i] = "handback" + i;
+        }
+
+        Exception[] outcomes = connection.addNotificationListeners(targets, listeners, null, handbacks);
+        assertEquals("Outcomes", targets.length, outcomes.length);
+        for (int i = 0; i < MBEAN_COUNT; i++) {
+            assertNull("Outcome " + i, outcomes[i]);
+        }
+        assertTrue("InstanceNotFoundException", outcomes[MBEAN_COUNT] instanceof InstanceNotFoundException);
+
+        notify(names[0], "First");
+        verifyReceived(listener, "First", "handback0");
+        notify(names[MBEAN_COUNT - 1], "Last");
+        verifyReceived(listener, "Last", "handback" + (MBEAN_COUNT - 1));
+
+        outcomes = connection.removeNotificationListeners(targets, listeners);
+        assertEquals("Outcomes", targets.length, outcomes.length);
+        for (int i = 0; i < MBEAN_COUNT; i++) {
+            assertNull("Outcome " + i, outcomes[i]);
+        }
+        // The listener was never added to the missing MBean.
+        assertTrue("ListenerNotFoundException", outcomes[MBEAN_COUNT] instanceof ListenerNotFoundException);
+
+        notify(names[0], "Removed");
+        assertEquals("Removed listener notifications", 0, listener.getNotEmptyNotofications(500).size());
+    }
+
+    private void notify(final ObjectName name, final String message) throws Exception {
+        connection.invoke(name, "notify", new Object[] { message }, new String[] { String.class.getName() });
+    }
+
+    private void verifyReceived(final Listener listener, final String message, final Object handback) throws Exception {
+        Set<Pair> notifications = listener.getNotEmptyNotofications(2000);
+        assertEquals("Notifications", 1, notifications.size());
+        Pair pair = notifications.iterator().next();
+        assertEquals("Message", message, pair.notification.getUserData());
+        assertEquals("Handback", handback, pair.handback);
+    }
+
+}
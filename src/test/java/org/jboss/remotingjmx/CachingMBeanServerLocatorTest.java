@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test case for the caching of located MBeanServerConnections by the CachingMBeanServerLocator.
+ */
+public class CachingMBeanServerLocatorTest {
+
+    private static MBeanServer mbeanServer;
+
+    private CountingMBeanServerLocator countingLocator;
+
+    @BeforeClass
+    public static void createMBeanServer() {
+        mbeanServer = MBeanServerFactory.newMBeanServer();
+    }
+
+    @AfterClass
+    public static void releaseMBeanServer() {
+        mbeanServer = null;
+    }
+
+    @Before
+    public void createLocator() {
+        countingLocator = new CountingMBeanServerLocator();
+    }
+
+    @Test
+    public void testCachedByParameters() {
+        CachingMBeanServerLocator locator = new CachingMBeanServerLocator(countingLocator, 0, TimeUnit.SECONDS, 0);
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("a", "b");
+        assertSame(mbeanServer, locator.getMBeanServer(parameters));
+        // Modifying the callers Map must not affect the cached entry.
+        parameters.put("c", "d");
+        assertSame(mbeanServer, locator.getMBeanServer(Collections.singletonMap("a", "b")));
+        assertSame(mbeanServer, locator.getMBeanServer(parameters));
+        assertSame(mbeanServer, locator.getDefaultMBeanServer());
+        assertSame(mbeanServer, locator.getDefaultMBeanServer());
+
+        assertEquals("Locator calls", 3, countingLocator.calls);
+        assertEquals("Hits", 2, locator.getHitCount());
+        assertEquals("Misses", 3, locator.getMissCount());
+        assertEquals("Size", 3, locator.getSize());
+    }
+
+    @Test
+    public void testNullNotCached() {
+        CachingMBeanServerLocator locator = new CachingMBeanServerLocator(countingLocator, 0, TimeUnit.SECONDS, 0);
+
+        Map<String, String> parameters = Collections.singletonMap("unknown", "true");
+        assertNull(locator.getMBeanServer(parameters));
+        assertNull(locator.getMBeanServer(parameters));
+
+        assertEquals("Locator calls", 2, countingLocator.calls);
+        assertEquals("Size", 0, locator.getSize());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        CachingMBeanServerLocator locator = new CachingMBeanServerLocator(countingLocator, 50, TimeUnit.MILLISECONDS, 0);
+
+        Map<String, String> parameters = Collections.singletonMap("a", "b");
+        locator.getMBeanServer(parameters);
+        locator.getMBeanServer(parameters);
+        assertEquals("Locator calls", 1, countingLocator.calls);
+
+        Thread.sleep(100);
+        locator.getMBeanServer(parameters);
+        assertEquals("Locator calls", 2, countingLocator.calls);
+        assertEquals("Evictions", 1, locator.getEvictionCount());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        CachingMBeanServerLocator locator = new CachingMBeanServerLocator(countingLocator, 0, TimeUnit.SECONDS, 2);
+
+        locator.getMBeanServer(Collections.singletonMap("a", "1"));
+        locator.getMBeanServer(Collections.singletonMap("a", "2"));
+        // Use the first entry so the second is the least recently used.
+        locator.getMBeanServer(Collections.singletonMap("a", "1"));
+        locator.getMBeanServer(Collections.singletonMap("a", "3"));
+
+        assertEquals("Size", 2, locator.getSize());
+        assertEquals("Evictions", 1, locator.getEvictionCount());
+
+        locator.getMBeanServer(Collections.singletonMap("a", "1"));
+        assertEquals("Locator calls", 3, countingLocator.calls);
+        locator.getMBeanServer(Collections.singletonMap("a", "2"));
+        assertEquals("Locator calls", 4, countingLocator.calls);
+    }
+
+    @Test
+    public void testInvalidation() {
+        CachingMBeanServerLocator locator = new CachingMBeanServerLocator(countingLocator, 0, TimeUnit.SECONDS, 0);
+
+        Map<String, String> parameters = Collections.singletonMap("a", "b");
+        locator.getMBeanServer(parameters);
+        locator.getMBeanServer(Collections.singletonMap("c", "d"));
+        locator.getDefaultMBeanServer();
+        assertEquals("Size", 3, locator.getSize());
+
+        locator.invalidate(parameters);
+        assertEquals("Size", 2, locator.getSize());
+        locator.getMBeanServer(parameters);
+        assertEquals("Locator calls", 4, countingLocator.calls);
+
+        locator.invalidate(mbeanServer);
+        assertEquals("Size", 0, locator.getSize());
+
+        locator.getDefaultMBeanServer();
+        locator.invalidateAll();
+        assertEquals("Size", 0, locator.getSize());
+        assertEquals("Evictions", 5, locator.getEvictionCount());
+    }
+
+    private static class CountingMBeanServerLocator implements MBeanServerLocator {
+
+        private int calls = 0;
+
+        @Override
+        public MBeanServerConnection getDefaultMBeanServer() {
+            calls++;
+            return mbeanServer;
+        }
+
+        @Override
+        public MBeanServerConnection getMBeanServer(Map<String, String> parameters) {
+            calls++;
+            return parameters.containsKey("unknown") ? null : mbeanServer;
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.CANCELLATION_INTERRUPT;
+import static org.jboss.remotingjmx.Constants.TIMEOUT_KEY;
+import static org.jboss.remotingjmx.common.Constants.PROTOCOL;
+import static org.jboss.remotingjmx.common.JMXRemotingServer.DEFAULT_PORT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.jboss.remoting3.Endpoint;
+import org.jboss.remotingjmx.common.JMXRemotingServer;
+import org.jboss.remotingjmx.common.JMXRemotingServer.JMXRemotingConfig;
+import org.jboss.remotingjmx.common.SlowBean;
+import org.junit.Test;
+
+/**
+ * Test case to verify the handling on the server of a request the client has stopped waiting for.
+ */
+public class CancellationTest extends AbstractTestBase {
+
+    private static final String SLOW_BEAN_NAME = DEFAULT_DOMAIN + ":test=SlowBean";
+
+    /**
+     * By default a request already being processed when it is cancelled runs to completion.
+     */
+    @Test
+    public void testTimedOutRequestCompleted() throws Exception {
+        ObjectName beanName = new ObjectName(SLOW_BEAN_NAME);
+        SlowBean slowBean = new SlowBean();
+        mbeanServer.registerMBean(slowBean, beanName);
+        try {
+            invokeWithTimeout(serviceURL, beanName, 3000);
+
+            assertTrue("Server side invocation completed", slowBean.awaitCompleted(10, TimeUnit.SECONDS));
+            assertFalse("Server side invocation interrupted", slowBean.awaitInterrupted(0, TimeUnit.SECONDS));
+        } finally {
+            mbeanServer.unregisterMBean(beanName);
+        }
+    }
+
+    /**
+     * Once enabled on the server the thread processing a cancelled request is interrupted.
+     */
+    @Test
+    public void testTimedOutRequestInterrupted() throws Exception {
+        JMXRemotingConfig config = new JMXRemotingConfig();
+        config.endpoint = Endpoint.builder().build();
+        config.mbeanServer = mbeanServer;
+        config.host = bindAddress;
+        config.port = DEFAULT_PORT + 1;
+        config.environment = Collections.<String, Object> singletonMap(CANCELLATION_INTERRUPT, true);
+        JMXRemotingServer interruptingServer = new JMXRemotingServer(config);
+        interruptingServer.start();
+
+        ObjectName beanName = new ObjectName(SLOW_BEAN_NAME);
+        SlowBean slowBean = new SlowBean();
+        mbeanServer.registerMBean(slowBean, beanName);
+        try {
+            invokeWithTimeout(new JMXServiceURL(PROTOCOL, bindAddress, config.port), beanName, 60000);
+
+            assertTrue("Server side invocation interrupted", slowBean.awaitInterrupted(10, TimeUnit.SECONDS));
+        } finally {
+            mbeanServer.unregisterMBean(beanName);
+            interruptingServer.stop();
+        }
+    }
+
+    private void invokeWithTimeout(final JMXServiceURL serviceURL, final ObjectName beanName, final long sleep)
+            throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(TIMEOUT_KEY, 1);
+        JMXConnector timeoutConnector = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            MBeanServerConnection connection = timeoutConnector.getMBeanServerConnection();
+            try {
+                connection.invoke(beanName, "sleep", new Object[] { sleep }, new String[] { long.class.getName() });
+                fail("Expected IOException not thrown.");
+            } catch (IOException expected) {
+            }
+            assertEquals("Timed out requests", Collections.singletonMap("invoke", 1L),
+                    ((RemotingMBeanServerConnection) connection).getTimedOutRequests());
+
+            // The connection remains usable once the request has been cancelled.
+            assertEquals("Default Domain", DEFAULT_DOMAIN, connection.getDefaultDomain());
+        } finally {
+            timeoutConnector.close();
+        }
+    }
+
+}
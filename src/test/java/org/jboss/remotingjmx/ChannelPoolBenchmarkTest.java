@@ -0,0 +1,194 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.CHANNEL_POOL_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.logging.Logger;
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.Listener.Pair;
+import org.jboss.remotingjmx.common.MyBean;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * A lightweight benchmark of the request throughput of a single connector as the size of its channel pool increases, the rates
+ * are logged and not asserted so the benchmark is only run on request.  Also verifies the behaviour of a connector using a
+ * channel pool.
+ */
+public class ChannelPoolBenchmarkTest extends AbstractTestBase {
+
+    private static final Logger log = Logger.getLogger(ChannelPoolBenchmarkTest.class);
+
+    private static final int[] POOL_SIZES = { 1, 2, 4 };
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 200;
+
+    @Test
+    @Ignore("Benchmark, the throughput is logged and not asserted.")
+    public void testChannelPoolThroughput() throws Exception {
+        log.infof("Measuring channel pool throughput with %d available processors", Runtime.getRuntime()
+                .availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int poolSize : POOL_SIZES) {
+                measure(poolSize, executor);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Notifications must still be received whilst requests are spread across the channels of the pool.
+     */
+    @Test
+    public void testNotificationsWithChannelPool() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(CHANNEL_POOL_SIZE, 4);
+
+        JMXConnector pooled = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            MBeanServerConnection connection = pooled.getMBeanServerConnection();
+            Listener listener = new Listener();
+            connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, null, null);
+
+            ObjectName beanName = new ObjectName(DEFAULT_DOMAIN, "test", "channelPool");
+            for (int i = 0; i < 4; i++) {
+                connection.createMBean(MyBean.class.getName(), beanName);
+                connection.unregisterMBean(beanName);
+            }
+
+            Set<Pair> received = new HashSet<Pair>();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (received.size() < 8 && System.currentTimeMillis() < deadline) {
+                received.addAll(listener.getNotEmptyNotofications(100));
+            }
+            assertEquals("Notifications received", 8, received.size());
+
+            connection.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener);
+        } finally {
+            pooled.close();
+        }
+    }
+
+    /**
+     * The failure of any channel of the pool is a failure of the connection.
+     */
+    @Test
+    public void testSecondaryChannelFailure() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(CHANNEL_POOL_SIZE, 2);
+
+        final BlockingQueue<JMXConnectionNotification> connectionNotifications = new LinkedBlockingQueue<JMXConnectionNotification>();
+        JMXConnector pooled = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            pooled.addConnectionNotificationListener(new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    connectionNotifications.add((JMXConnectionNotification) notification);
+                }
+            }, null, null);
+
+            Field versionedConnection = RemotingConnector.class.getDeclaredField("versionedConnection");
+            versionedConnection.setAccessible(true);
+            StripedConnection striped = (StripedConnection) versionedConnection.get(pooled);
+            striped.getSecondaryChannels().get(0).close();
+
+            JMXConnectionNotification notification = connectionNotifications.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Connection notification received", notification);
+            assertEquals("Type", JMXConnectionNotification.FAILED, notification.getType());
+            assertEquals("Connection ID", pooled.getConnectionId(), notification.getConnectionId());
+        } finally {
+            pooled.close();
+        }
+    }
+
+    private void measure(final int poolSize, final ExecutorService executor) throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(CHANNEL_POOL_SIZE, poolSize);
+
+        JMXConnector pooled = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            final MBeanServerConnection connection = pooled.getMBeanServerConnection();
+            final Object expected = mbeanServer.getAttribute(MBeanServerDelegate.DELEGATE_NAME, "ImplementationName");
+            // Warm up each of the channels before measuring.
+            for (int i = 0; i < poolSize * 10; i++) {
+                assertEquals("ImplementationName", expected,
+                        connection.getAttribute(MBeanServerDelegate.DELEGATE_NAME, "ImplementationName"));
+            }
+
+            List<Future<Void>> futures = new ArrayList<Future<Void>>(THREADS);
+            long start = System.nanoTime();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                            assertEquals("ImplementationName", expected,
+                                    connection.getAttribute(MBeanServerDelegate.DELEGATE_NAME, "ImplementationName"));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> current : futures) {
+                current.get(60, TimeUnit.SECONDS);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            int requests = THREADS * REQUESTS_PER_THREAD;
+            log.infof("Channel pool size %d, %d requests from %d threads took %d ms, %d per second", poolSize, requests,
+                    THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed), requests * TimeUnit.SECONDS.toNanos(1)
+                            / Math.max(elapsed, 1));
+        } finally {
+            pooled.close();
+        }
+    }
+
+}
@@ -89,7 +89,39 @@ public class ClassLoaderClientTest extends AbstractTestBase {
 
     }
 
-    private static final ClassLoader TEST_CLASS_LOADER = new ClassLoader() {
+    /**
+     * Test that once an MBean is unregistered a replacement MBean registered under the same name from a different class loader
+     * is called using the class loader of the replacement.
+     */
+    @Test
+    public void testInvokeAfterReRegistration() throws Exception {
+        ObjectName beanName = new ObjectName(DEFAULT_DOMAIN, "test", "testReRegistration");
+        assertFalse(mbeanServer.isRegistered(beanName));
+
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        final CustomValueClass someValue = new CustomValueClass("MyTestValue");
+
+        for (int i = 0; i < 2; i++) {
+            Object bean = new TestClassLoader().loadClass(MyBean.class.getName()).getDeclaredConstructor().newInstance();
+            mbeanServer.registerMBean(bean, beanName);
+            try {
+                for (int j = 0; j < 2; j++) {
+                    String response = (String) connection.invoke(beanName, "extractCustomValue", new Object[] { someValue },
+                            new String[] { CustomValueClass.class.getName() });
+
+                    assertEquals("MyTestValue", response);
+                }
+            } finally {
+                if (mbeanServer.isRegistered(beanName)) {
+                    mbeanServer.unregisterMBean(beanName);
+                }
+            }
+        }
+    }
+
+    private static final ClassLoader TEST_CLASS_LOADER = new TestClassLoader();
+
+    private static class TestClassLoader extends ClassLoader {
 
         @Override
         protected Class<?> loadClass(final String name, boolean resolve) throws ClassNotFoundException {
@@ -131,6 +163,6 @@ public class ClassLoaderClientTest extends AbstractTestBase {
                 throw new ClassNotFoundException(name);
             }
         }
-    };
+    }
 
 }
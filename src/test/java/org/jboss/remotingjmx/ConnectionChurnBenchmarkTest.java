@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.SHARED_ENDPOINT;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.logging.Logger;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * A lightweight benchmark of connector churn, the rates are logged and not asserted so the benchmark is only run on request.
+ */
+@Ignore("Benchmark, the rates are logged and not asserted.")
+public class ConnectionChurnBenchmarkTest extends AbstractTestBase {
+
+    private static final Logger log = Logger.getLogger(ConnectionChurnBenchmarkTest.class);
+
+    private static final int CONNECTION_ITERATIONS = 50;
+    private static final int REGISTRATION_ITERATIONS = 100000;
+
+    /**
+     * Connect and close connectors sequentially, the connectors share an endpoint which is kept open by an additional connector
+     * so the cost measured is that of the connector and not of creating the endpoint.
+     */
+    @Test
+    public void testConnectionChurn() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(SHARED_ENDPOINT, true);
+
+        JMXConnector anchor = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < CONNECTION_ITERATIONS; i++) {
+                JMXConnector connector = JMXConnectorFactory.connect(serviceURL, environment);
+                try {
+                    assertNotNull("defaultDomain", connector.getMBeanServerConnection().getDefaultDomain());
+                } finally {
+                    connector.close();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            log.infof("%d connect / close cycles took %d ms, %d per second", CONNECTION_ITERATIONS,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rate(CONNECTION_ITERATIONS, elapsed));
+        } finally {
+            anchor.close();
+        }
+    }
+
+    /**
+     * Compare registering for shutdown with the ShutdownRegistry to registering a shutdown hook per connector.
+     */
+    @Test
+    public void testRegistrationChurn() {
+        final Closeable connector = new Closeable() {
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REGISTRATION_ITERATIONS; i++) {
+            ShutdownRegistry.register(connector).remove();
+        }
+        long registryElapsed = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < REGISTRATION_ITERATIONS; i++) {
+            Thread hook = new Thread();
+            Runtime.getRuntime().addShutdownHook(hook);
+            Runtime.getRuntime().removeShutdownHook(hook);
+        }
+        long hookElapsed = System.nanoTime() - start;
+
+        log.infof("%d registrations, ShutdownRegistry %d per second, shutdown hooks %d per second", REGISTRATION_ITERATIONS,
+                rate(REGISTRATION_ITERATIONS, registryElapsed), rate(REGISTRATION_ITERATIONS, hookElapsed));
+    }
+
+    private static long rate(final int iterations, final long elapsedNanos) {
+        return iterations * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.HEARTBEAT_INTERVAL;
+import static org.jboss.remotingjmx.Constants.HEARTBEAT_MAX_MISSED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.junit.Test;
+
+/**
+ * Test case for the JMXConnectionNotifications emitted by the connector and for the heartbeat used to detect failed
+ * connections.
+ */
+public class ConnectionNotificationTest extends AbstractTestBase {
+
+    @Test
+    public void testOpenedAndClosed() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        JMXConnector testConnector = JMXConnectorFactory.newJMXConnector(serviceURL, null);
+        testConnector.addConnectionNotificationListener(listener, null, null);
+
+        testConnector.connect();
+        String connectionId = testConnector.getConnectionId();
+        JMXConnectionNotification opened = listener.next();
+        assertEquals("Type", JMXConnectionNotification.OPENED, opened.getType());
+        assertEquals("Connection ID", connectionId, opened.getConnectionId());
+
+        testConnector.close();
+        JMXConnectionNotification closed = listener.next();
+        assertEquals("Type", JMXConnectionNotification.CLOSED, closed.getType());
+        assertEquals("Connection ID", connectionId, closed.getConnectionId());
+        assertEquals("Sequence", opened.getSequenceNumber() + 1, closed.getSequenceNumber());
+
+        assertNull("No further notifications", listener.poll(500));
+    }
+
+    @Test
+    public void testFailed() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        JMXConnector testConnector = JMXConnectorFactory.connect(serviceURL, null);
+        try {
+            testConnector.addConnectionNotificationListener(listener, null, null);
+
+            // Close the underlying connection without closing the connector.
+            ((RemotingMBeanServerConnection) testConnector.getMBeanServerConnection()).getConnection().close();
+
+            JMXConnectionNotification failed = listener.next();
+            assertEquals("Type", JMXConnectionNotification.FAILED, failed.getType());
+            assertEquals("Connection ID", testConnector.getConnectionId(), failed.getConnectionId());
+        } finally {
+            testConnector.close();
+        }
+    }
+
+    @Test
+    public void testHeartbeat() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(HEARTBEAT_INTERVAL, 1);
+        // The connection fails if the response to a ping is not received before the next interval.
+        environment.put(HEARTBEAT_MAX_MISSED, 1);
+
+        RecordingListener listener = new RecordingListener();
+        JMXConnector testConnector = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            testConnector.addConnectionNotificationListener(listener, null, null);
+
+            assertNull("No notifications", listener.poll(3500));
+            assertEquals("Default Domain", DEFAULT_DOMAIN, testConnector.getMBeanServerConnection().getDefaultDomain());
+        } finally {
+            testConnector.close();
+        }
+    }
+
+    private static class RecordingListener implements NotificationListener {
+
+        private final BlockingQueue<JMXConnectionNotification> notifications = new LinkedBlockingQueue<JMXConnectionNotification>();
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            notifications.add((JMXConnectionNotification) notification);
+        }
+
+        JMXConnectionNotification next() throws InterruptedException {
+            JMXConnectionNotification notification = poll(10000);
+            assertNotNull("Notification received", notification);
+            return notification;
+        }
+
+        JMXConnectionNotification poll(final long timeoutMillis) throws InterruptedException {
+            return notifications.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+}
@@ -45,6 +45,7 @@ import javax.management.remote.JMXServiceURL;
 import org.jboss.remotingjmx.common.JMXRemotingServer;
 import org.jboss.remotingjmx.common.JMXRemotingServer.JMXRemotingConfig;
 import org.jboss.remotingjmx.protocol.Versions;
+import org.jboss.remotingjmx.protocol.v2.VersionThree;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -277,6 +278,50 @@ public class DelegatingServerTest {
         connector.close();
     }
 
+    /**
+     * Test a version two connection with two parameters, version two waits for each parameter to be acknowledged.
+     */
+    @Test
+    public void testVersionTwo_TwoParameters() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(EXCLUDED_VERSIONS, String.valueOf(VersionThree.getVersionIdentifier()));
+
+        JMXServiceURL serviceUrl = new JMXServiceURL(PROTOCOL, bindAddress, DEFAULT_PORT, "/?a=b,c=d");
+        JMXConnector connector = JMXConnectorFactory.connect(serviceUrl, environment);
+
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        String defaultDomain = connection.getDefaultDomain();
+        assertNotNull("defaultDomain", defaultDomain);
+        assertEquals("Remote Access Default Domain", DEFAULT_DOMAIN, defaultDomain);
+
+        assertEquals("No properties sent.", 2, mbeanServerLocator.parameters.size());
+        assertEquals("Parameter set", "b", mbeanServerLocator.parameters.get("a"));
+        assertEquals("Parameter set", "d", mbeanServerLocator.parameters.get("c"));
+
+        connector.close();
+    }
+
+    /**
+     * Test a version three connection with three parameters, version three sends all parameters in a single message.
+     */
+    @Test
+    public void testVersionThree_ThreeParameters() throws Exception {
+        JMXServiceURL serviceUrl = new JMXServiceURL(PROTOCOL, bindAddress, DEFAULT_PORT, "/?a=b,c=d,e=f");
+        JMXConnector connector = JMXConnectorFactory.connect(serviceUrl);
+
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        String defaultDomain = connection.getDefaultDomain();
+        assertNotNull("defaultDomain", defaultDomain);
+        assertEquals("Remote Access Default Domain", DEFAULT_DOMAIN, defaultDomain);
+
+        assertEquals("No properties sent.", 3, mbeanServerLocator.parameters.size());
+        assertEquals("Parameter set", "b", mbeanServerLocator.parameters.get("a"));
+        assertEquals("Parameter set", "d", mbeanServerLocator.parameters.get("c"));
+        assertEquals("Parameter set", "f", mbeanServerLocator.parameters.get("e"));
+
+        connector.close();
+    }
+
     private static class TestMBeanServerLocator implements MBeanServerLocator {
 
         private boolean getDefaultMBeanServerCalled = false;
@@ -20,6 +20,7 @@ package org.jboss.remotingjmx;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.Set;
 
@@ -27,6 +28,8 @@ import javax.management.MBeanServerConnection;
 import javax.management.NotificationFilter;
 import javax.management.NotificationListener;
 import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
 
 import org.jboss.remotingjmx.common.Listener;
 import org.jboss.remotingjmx.common.Listener.Pair;
@@ -102,6 +105,43 @@ public class NotificationClientSideTest extends AbstractTestBase {
         assertEquals(0, listener.getRecievedNotifications().size());
     }
 
+    @Test
+    public void testLocalHandback() throws Exception {
+        // The handback is not Serializable as it is retained by the client.
+        Object handback = new Object();
+        connection.addNotificationListener(notificationName, listener, null, handback);
+
+        String theMessage = "Notification Message 4";
+        connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+
+        Set<Pair> notifications = listener.getNotEmptyNotofications(2000);
+        assertEquals(1, notifications.size());
+        assertSame(handback, notifications.iterator().next().handback);
+
+        connection.removeNotificationListener(notificationName, listener, null, handback);
+    }
+
+    @Test
+    public void testMultipleConnections() throws Exception {
+        // The same notification is written to each connection.
+        JMXConnector secondConnector = JMXConnectorFactory.connect(serviceURL);
+        try {
+            Listener second = new Listener();
+            connection.addNotificationListener(notificationName, listener, null, null);
+            secondConnector.getMBeanServerConnection().addNotificationListener(notificationName, second, null, null);
+
+            String theMessage = "Notification Message 5";
+            connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+
+            assertEquals(theMessage, listener.getNotEmptyNotofications(2000).iterator().next().notification.getUserData());
+            assertEquals(theMessage, second.getNotEmptyNotofications(2000).iterator().next().notification.getUserData());
+
+            connection.removeNotificationListener(notificationName, listener);
+        } finally {
+            secondConnector.close();
+        }
+    }
+
     @Test
     public void testFilteredNotifications() throws Exception {
         assertEquals(0, listener.getRecievedNotifications().size());
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH_SIZE;
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_FETCH_TIMEOUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.junit.Test;
+
+/**
+ * Test case for clients fetching notifications instead of the server sending them as they occur.
+ */
+public class NotificationFetchTest extends AbstractTestBase {
+
+    private static final int NOTIFICATION_COUNT = 10;
+
+    @Test
+    public void testFetchNotifications() throws Exception {
+        ObjectName notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "fetch");
+        mbeanServer.registerMBean(new NotificationBean(), notificationName);
+
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(NOTIFICATION_FETCH, true);
+        // Fetch fewer notifications than are sent so multiple fetches are needed.
+        environment.put(NOTIFICATION_FETCH_SIZE, 3);
+        environment.put(NOTIFICATION_FETCH_TIMEOUT, 200);
+
+        JMXConnector testConnector = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            MBeanServerConnection connection = testConnector.getMBeanServerConnection();
+            final BlockingQueue<Notification> received = new LinkedBlockingQueue<Notification>();
+            connection.addNotificationListener(notificationName, new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    received.add(notification);
+                }
+            }, null, null);
+
+            sendAndVerify(connection, notificationName, received, "First");
+
+            // Allow several fetches to time out with no notifications before sending more.
+            Thread.sleep(500);
+            sendAndVerify(connection, notificationName, received, "Second");
+        } finally {
+            testConnector.close();
+            mbeanServer.unregisterMBean(notificationName);
+        }
+    }
+
+    private void sendAndVerify(final MBeanServerConnection connection, final ObjectName notificationName,
+            final BlockingQueue<Notification> received, final String prefix) throws Exception {
+        for (int i = 0; i < NOTIFICATION_COUNT; i++) {
+            connection.invoke(notificationName, "notify", new Object[] { prefix + i }, new String[] { String.class.getName() });
+        }
+
+        // Notifications are fetched in order.
+        for (int i = 0; i < NOTIFICATION_COUNT; i++) {
+            Notification notification = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull("Notification received", notification);
+            assertEquals("Message", prefix + i, notification.getUserData());
+        }
+    }
+
+}
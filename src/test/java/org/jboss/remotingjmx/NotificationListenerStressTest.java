@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.jboss.remotingjmx.common.StringNotificationFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Stress test of concurrent notification listener registrations made by a single connection.
+ */
+public class NotificationListenerStressTest extends AbstractTestBase {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS = 100;
+
+    private ObjectName notificationName;
+    private CountingNotificationBean notificationBean;
+    private ExecutorService executor;
+
+    @Before
+    public void register() throws Exception {
+        notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "stress");
+        notificationBean = new CountingNotificationBean();
+        mbeanServer.registerMBean(notificationBean, notificationName);
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @After
+    public void unregister() throws Exception {
+        executor.shutdownNow();
+        mbeanServer.unregisterMBean(notificationName);
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws Exception {
+        final MBeanServerConnection connection = connector.getMBeanServerConnection();
+        runConcurrently(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    Listener listener = new Listener();
+                    connection.addNotificationListener(notificationName, listener, null, null);
+                    connection.removeNotificationListener(notificationName, listener);
+                }
+                return null;
+            }
+        });
+
+        assertEquals("Registered listeners", 0, notificationBean.listenerCount.get());
+    }
+
+    @Test
+    public void testListenersRemovedOnClose() throws Exception {
+        JMXConnector testConnector = JMXConnectorFactory.connect(serviceURL);
+        try {
+            final MBeanServerConnection connection = testConnector.getMBeanServerConnection();
+            runConcurrently(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    // A distinct filter for each listener so the listeners do not share a registration.
+                    String prefix = Thread.currentThread().getName();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        connection.addNotificationListener(notificationName, new Listener(), new StringNotificationFilter(
+                                prefix + ":" + i), null);
+                    }
+                    return null;
+                }
+            });
+            assertEquals("Registered listeners", THREAD_COUNT * ITERATIONS, notificationBean.listenerCount.get());
+        } finally {
+            testConnector.close();
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (notificationBean.listenerCount.get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("Registered listeners", 0, notificationBean.listenerCount.get());
+    }
+
+    @Test
+    public void testSlowRegistration() throws Exception {
+        final ObjectName slowName = new ObjectName(DEFAULT_DOMAIN, "test", "slow");
+        final CountDownLatch registering = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        mbeanServer.registerMBean(new NotificationBean() {
+
+            @Override
+            public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+                registering.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.addNotificationListener(listener, filter, handback);
+            }
+
+        }, slowName);
+        try {
+            final MBeanServerConnection connection = connector.getMBeanServerConnection();
+            Future<Void> slow = executor.submit(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    connection.addNotificationListener(slowName, new Listener(), null, null);
+                    return null;
+                }
+            });
+            assertTrue("Slow registration started", registering.await(5, TimeUnit.SECONDS));
+
+            // Whilst the slow registration is in progress other listeners can still be added and removed.
+            final Listener listener = new Listener();
+            Future<Void> other = executor.submit(new Callable<Void>() {
+
+                @Override
+                public Void call() throws Exception {
+                    connection.addNotificationListener(notificationName, listener, null, null);
+                    connection.removeNotificationListener(notificationName, listener);
+                    return null;
+                }
+            });
+            other.get(5, TimeUnit.SECONDS);
+
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            mbeanServer.unregisterMBean(slowName);
+        }
+    }
+
+    private void runConcurrently(final Callable<Void> task) throws Exception {
+        List<Future<Void>> results = new ArrayList<Future<Void>>(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(task));
+        }
+        for (Future<Void> current : results) {
+            current.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class CountingNotificationBean extends NotificationBean {
+
+        private final AtomicInteger listenerCount = new AtomicInteger();
+
+        @Override
+        public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+            super.addNotificationListener(listener, filter, handback);
+            listenerCount.incrementAndGet();
+        }
+
+        @Override
+        public void removeNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback)
+                throws ListenerNotFoundException {
+            super.removeNotificationListener(listener, filter, handback);
+            listenerCount.decrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for receiving notifications using a Flow.Publisher where the demand of the Subscriber limits the notifications
+ * sent.
+ */
+public class NotificationPublisherTest extends AbstractTestBase {
+
+    private ObjectName notificationName;
+    private final AtomicInteger registrations = new AtomicInteger();
+    private RemotingMBeanServerConnection connection;
+    private int emitted = 0;
+
+    @Before
+    public void register() throws Exception {
+        notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "publisher");
+        mbeanServer.registerMBean(new NotificationBean() {
+
+            @Override
+            public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+                super.addNotificationListener(listener, filter, handback);
+                registrations.incrementAndGet();
+            }
+
+            @Override
+            public void removeNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback)
+                    throws ListenerNotFoundException {
+                super.removeNotificationListener(listener, filter, handback);
+                registrations.decrementAndGet();
+            }
+
+        }, notificationName);
+        connection = (RemotingMBeanServerConnection) connector.getMBeanServerConnection();
+    }
+
+    @After
+    public void unregister() throws Exception {
+        mbeanServer.unregisterMBean(notificationName);
+        connection = null;
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        connection.getNotificationPublisher(notificationName, null).subscribe(subscriber);
+        Flow.Subscription subscription = subscriber.getSubscription();
+        assertEquals("Registrations", 1, registrations.get());
+
+        subscription.request(2);
+        emit(10);
+        assertEquals("Received", 2, subscriber.awaitReceived(2));
+        // Only the requested notifications are delivered.
+        Thread.sleep(500);
+        assertEquals("Received", 2, subscriber.awaitReceived(2));
+
+        subscription.request(3);
+        assertEquals("Received", 5, subscriber.awaitReceived(5));
+        Thread.sleep(500);
+        assertEquals("Received", 5, subscriber.awaitReceived(5));
+
+        if (isCredited()) {
+            // Only the first notifications are sent with none skipped, as each is dispatched separately they may be
+            // received in a different order.
+            Set<String> expected = new HashSet<String>();
+            for (int i = 0; i < 5; i++) {
+                expected.add("Message " + i);
+            }
+            assertEquals("Messages", expected, new HashSet<String>(subscriber.getMessages()));
+        }
+
+        subscription.request(Long.MAX_VALUE);
+        assertEquals("Received", 10, subscriber.awaitReceived(10));
+        emit(5);
+        assertEquals("Received", 15, subscriber.awaitReceived(15));
+
+        subscription.cancel();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (registrations.get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("Registrations", 0, registrations.get());
+    }
+
+    @Test
+    public void testMissingMBean() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        connection.getNotificationPublisher(new ObjectName(DEFAULT_DOMAIN, "test", "missing"), null).subscribe(subscriber);
+
+        assertNotNull("Subscription", subscriber.getSubscription());
+        assertTrue("InstanceNotFoundException", subscriber.getError() instanceof InstanceNotFoundException);
+    }
+
+    @Test
+    public void testConnectionClosed() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        connection.getNotificationPublisher(notificationName, null).subscribe(subscriber);
+        assertNotNull("Subscription", subscriber.getSubscription());
+
+        connector.close();
+        assertTrue("IOException", subscriber.awaitError() instanceof IOException);
+    }
+
+    /**
+     * @return true if the server only sends the notifications requested by the Subscriber.
+     */
+    protected boolean isCredited() {
+        return true;
+    }
+
+    private void emit(final int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            mbeanServer.invoke(notificationName, "notify", new Object[] { "Message " + emitted++ },
+                    new String[] { String.class.getName() });
+        }
+    }
+
+
+    private static class TestSubscriber implements Flow.Subscriber<Notification> {
+
+        private final List<String> messages = new ArrayList<String>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public synchronized void onNext(Notification item) {
+            messages.add((String) item.getUserData());
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            error = throwable;
+            notifyAll();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        synchronized Flow.Subscription getSubscription() {
+            return subscription;
+        }
+
+        synchronized Throwable getError() {
+            return error;
+        }
+
+        synchronized List<String> getMessages() {
+            return new ArrayList<String>(messages);
+        }
+
+        /**
+         * Wait up to two seconds for the error.
+         *
+         * @return The error received or null if no error was received.
+         */
+        synchronized Throwable awaitError() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 2000;
+            while (error == null && System.currentTimeMillis() < deadline) {
+                wait(10);
+            }
+
+            return error;
+        }
+
+        /**
+         * Wait up to two seconds for at least the expected number of notifications.
+         *
+         * @return The number of notifications received.
+         */
+        synchronized int awaitReceived(final int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 2000;
+            while (messages.size() < expected && System.currentTimeMillis() < deadline) {
+                wait(10);
+            }
+
+            return messages.size();
+        }
+
+    }
+
+}
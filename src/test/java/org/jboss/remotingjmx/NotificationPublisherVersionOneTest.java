@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.EXCLUDED_VERSIONS;
+
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Test case for receiving notifications using a Flow.Publisher over version 1 of the protocol, without credits the
+ * notifications not yet requested are held by the client.
+ */
+public class NotificationPublisherVersionOneTest extends NotificationPublisherTest {
+
+    private static final String LATER_VERSIONS = "2,3";
+
+    @BeforeClass
+    public static void setupServer() throws IOException {
+        // The connections made before each test also exclude versions 2 and 3.
+        System.setProperty(EXCLUDED_VERSIONS, LATER_VERSIONS);
+        setupServer(LATER_VERSIONS);
+    }
+
+    @AfterClass
+    public static void clearExcludedVersions() {
+        System.clearProperty(EXCLUDED_VERSIONS);
+    }
+
+    @Override
+    protected boolean isCredited() {
+        return false;
+    }
+
+}
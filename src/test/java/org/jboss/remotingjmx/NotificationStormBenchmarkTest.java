@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.NOTIFICATION_MAX_YIELD;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.logging.Logger;
+import org.jboss.remotingjmx.common.MyBean;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.jboss.remotingjmx.common.SlowBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * A lightweight benchmark of the latency of reading an attribute whilst the server is sending a burst of large notifications
+ * on the same connection, the latencies are logged and not asserted so the benchmark is only run on request.  Also verifies that the priority given to responses does
+ * not limit the notifications sent whilst a request is in progress.
+ */
+public class NotificationStormBenchmarkTest extends AbstractTestBase {
+
+    private static final Logger log = Logger.getLogger(NotificationStormBenchmarkTest.class);
+
+    private static final int SAMPLES = 200;
+    private static final int NOTIFICATION_SIZE = 64 * 1024;
+    private static final int NOTIFICATION_COUNT = 500;
+    private static final long SLOW_REQUEST_MILLIS = 5000;
+
+    private ObjectName notificationName;
+    private ObjectName beanName;
+
+    @Before
+    public void register() throws Exception {
+        notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "storm");
+        mbeanServer.registerMBean(new NotificationBean(), notificationName);
+        beanName = new ObjectName(DEFAULT_DOMAIN, "test", "stormRead");
+        mbeanServer.registerMBean(new MyBean("Hello", "World"), beanName);
+    }
+
+    @After
+    public void unregister() throws Exception {
+        mbeanServer.unregisterMBean(notificationName);
+        mbeanServer.unregisterMBean(beanName);
+        System.clearProperty(NOTIFICATION_MAX_YIELD);
+    }
+
+    @Test
+    @Ignore("Benchmark, the latencies are logged and not asserted.")
+    public void testReadLatencyDuringNotificationStorm() throws Exception {
+        // The server reads the property as each connection is established.
+        System.setProperty(NOTIFICATION_MAX_YIELD, "0");
+        long withoutPriority = measure("without response priority");
+
+        System.clearProperty(NOTIFICATION_MAX_YIELD);
+        long withPriority = measure("with response priority");
+
+        log.infof("p99 read latency during notification storm, without response priority %d us, with response priority %d us",
+                withoutPriority, withPriority);
+    }
+
+    /**
+     * A request in progress must not hold back notifications, only a response being written is given priority.
+     */
+    @Test
+    public void testNotificationsDuringSlowRequest() throws Exception {
+        ObjectName slowName = new ObjectName(DEFAULT_DOMAIN, "test", "stormSlow");
+        SlowBean slowBean = new SlowBean();
+        mbeanServer.registerMBean(slowBean, slowName);
+        JMXConnector slowConnector = JMXConnectorFactory.connect(serviceURL);
+        try {
+            final MBeanServerConnection connection = slowConnector.getMBeanServerConnection();
+            final CountDownLatch received = new CountDownLatch(NOTIFICATION_COUNT);
+            connection.addNotificationListener(notificationName, new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    received.countDown();
+                }
+            }, null, null);
+
+            final ObjectName target = slowName;
+            Thread slowRequest = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        connection.invoke(target, "sleep", new Object[] { SLOW_REQUEST_MILLIS },
+                                new String[] { long.class.getName() });
+                    } catch (Exception e) {
+                        log.error("Slow request failed", e);
+                    }
+                }
+            }, "Slow Request");
+            slowRequest.start();
+            // Allow the request to reach the server.
+            Thread.sleep(200);
+
+            for (int i = 0; i < NOTIFICATION_COUNT; i++) {
+                mbeanServer.invoke(notificationName, "notify", new Object[] { "Notification " + i },
+                        new String[] { String.class.getName() });
+            }
+
+            // Delaying each notification by the maximum yield would take over ten seconds.
+            assertTrue("Notifications received", received.await(3, TimeUnit.SECONDS));
+            assertFalse("Request still in progress", slowBean.awaitCompleted(0, TimeUnit.MILLISECONDS));
+
+            slowRequest.join();
+        } finally {
+            slowConnector.close();
+            mbeanServer.unregisterMBean(slowName);
+        }
+    }
+
+    /**
+     * @return The p99 latency in microseconds.
+     */
+    private long measure(final String mode) throws Exception {
+        JMXConnector stormConnector = JMXConnectorFactory.connect(serviceURL);
+        final AtomicBoolean storming = new AtomicBoolean(true);
+        try {
+            MBeanServerConnection connection = stormConnector.getMBeanServerConnection();
+            final AtomicInteger received = new AtomicInteger();
+            connection.addNotificationListener(notificationName, new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    received.incrementAndGet();
+                }
+            }, null, null);
+
+            char[] payload = new char[NOTIFICATION_SIZE];
+            Arrays.fill(payload, 'x');
+            final String message = new String(payload);
+            Thread storm = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        while (storming.get()) {
+                            mbeanServer.invoke(notificationName, "notify", new Object[] { message },
+                                    new String[] { String.class.getName() });
+                            Thread.sleep(1);
+                        }
+                    } catch (Exception e) {
+                        log.error("Notification storm failed", e);
+                    }
+                }
+            }, "Notification Storm");
+            storm.start();
+
+            long[] latencies = new long[SAMPLES];
+            try {
+                for (int i = 0; i < SAMPLES; i++) {
+                    long start = System.nanoTime();
+                    assertEquals("Attribute", "Hello", connection.getAttribute(beanName, "SomeValue"));
+                    latencies[i] = System.nanoTime() - start;
+                }
+            } finally {
+                storming.set(false);
+                storm.join();
+            }
+
+            Arrays.sort(latencies);
+            long p50 = TimeUnit.NANOSECONDS.toMicros(latencies[SAMPLES / 2]);
+            long p99 = TimeUnit.NANOSECONDS.toMicros(latencies[(SAMPLES * 99) / 100 - 1]);
+            log.infof("%d reads %s, p50 %d us, p99 %d us, %d notifications received", SAMPLES, mode, p50, p99,
+                    received.get());
+
+            return p99;
+        } finally {
+            stormConnector.close();
+        }
+    }
+
+}
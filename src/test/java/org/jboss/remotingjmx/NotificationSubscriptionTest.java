@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.Listener.Pair;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.jboss.remotingjmx.common.StringNotificationFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for client listeners with the same ObjectName and filter sharing a single registration on the server.
+ */
+public class NotificationSubscriptionTest extends AbstractTestBase {
+
+    private ObjectName notificationName;
+    private final AtomicInteger registrations = new AtomicInteger();
+    private MBeanServerConnection connection;
+
+    @Before
+    public void register() throws Exception {
+        notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "subscription");
+        mbeanServer.registerMBean(new NotificationBean() {
+
+            @Override
+            public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+                super.addNotificationListener(listener, filter, handback);
+                registrations.incrementAndGet();
+            }
+
+            @Override
+            public void removeNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback)
+                    throws ListenerNotFoundException {
+                super.removeNotificationListener(listener, filter, handback);
+                registrations.decrementAndGet();
+            }
+
+        }, notificationName);
+        connection = connector.getMBeanServerConnection();
+    }
+
+    @After
+    public void unregister() throws Exception {
+        mbeanServer.unregisterMBean(notificationName);
+        connection = null;
+    }
+
+    @Test
+    public void testSharedSubscription() throws Exception {
+        Listener first = new Listener();
+        Listener second = new Listener();
+        Listener filtered = new Listener();
+        connection.addNotificationListener(notificationName, first, null, "first");
+        connection.addNotificationListener(notificationName, second, null, "second");
+        connection.addNotificationListener(notificationName, filtered, new StringNotificationFilter("Keep"), null);
+        assertEquals("Registrations", 2, registrations.get());
+
+        String theMessage = "Shared 'Keep' Message";
+        connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+        verifyReceived(first, theMessage, "first");
+        verifyReceived(second, theMessage, "second");
+        verifyReceived(filtered, theMessage, null);
+
+        // Once one listener is removed the subscription remains for the other.
+        connection.removeNotificationListener(notificationName, first);
+        assertEquals("Registrations", 2, registrations.get());
+        connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+        verifyReceived(second, theMessage, "second");
+        assertEquals("Removed listener notifications", 0, first.getRecievedNotifications().size());
+
+        connection.removeNotificationListener(notificationName, second);
+        connection.removeNotificationListener(notificationName, filtered);
+        assertEquals("Registrations", 0, registrations.get());
+    }
+
+    private void verifyReceived(final Listener listener, final String message, final Object handback) throws Exception {
+        Set<Pair> notifications = listener.getNotEmptyNotofications(2000);
+        assertEquals("Notifications", 1, notifications.size());
+        Pair pair = notifications.iterator().next();
+        assertEquals("Message", message, pair.notification.getUserData());
+        assertEquals("Handback", handback, pair.handback);
+    }
+
+}
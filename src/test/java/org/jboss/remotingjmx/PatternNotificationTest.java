@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.Listener.Pair;
+import org.jboss.remotingjmx.common.MyBean;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for a single client listener added to every MBean matching an ObjectName pattern.
+ */
+public class PatternNotificationTest extends AbstractTestBase {
+
+    private final List<ObjectName> registered = new ArrayList<ObjectName>();
+    private ObjectName pattern;
+    private MBeanServerConnection connection;
+
+    @Before
+    public void register() throws Exception {
+        pattern = new ObjectName(DEFAULT_DOMAIN + ":type=pattern,*");
+        registerNotificationBean("one");
+        registerNotificationBean("two");
+        // Matching MBeans that do not emit notifications are skipped.
+        ObjectName plain = new ObjectName(DEFAULT_DOMAIN + ":type=pattern,name=plain");
+        mbeanServer.registerMBean(new MyBean(), plain);
+        registered.add(plain);
+        connection = connector.getMBeanServerConnection();
+    }
+
+    private ObjectName registerNotificationBean(final String name) throws Exception {
+        ObjectName objectName = new ObjectName(DEFAULT_DOMAIN + ":type=pattern,name=" + name);
+        mbeanServer.registerMBean(new NotificationBean(), objectName);
+        registered.add(objectName);
+
+        return objectName;
+    }
+
+    @After
+    public void unregister() throws Exception {
+        for (ObjectName current : registered) {
+            if (mbeanServer.isRegistered(current)) {
+                mbeanServer.unregisterMBean(current);
+            }
+        }
+        registered.clear();
+        connection = null;
+    }
+
+    @Test
+    public void testPatternListener() throws Exception {
+        Listener listener = new Listener();
+        connection.addNotificationListener(pattern, listener, null, "pattern");
+
+        notify(registered.get(0), "First");
+        verifyReceived(listener, "First", registered.get(0));
+        notify(registered.get(1), "Second");
+        verifyReceived(listener, "Second", registered.get(1));
+
+        // MBeans registered after the listener was added are also matched.
+        ObjectName later = registerNotificationBean("later");
+        notify(later, "Later");
+        verifyReceived(listener, "Later", later);
+
+        // Once unregistered and registered again the MBean is matched again.
+        mbeanServer.unregisterMBean(later);
+        mbeanServer.registerMBean(new NotificationBean(), later);
+        notify(later, "Again");
+        verifyReceived(listener, "Again", later);
+
+        connection.removeNotificationListener(pattern, listener);
+        notify(registered.get(0), "Removed");
+        assertEquals("Removed listener notifications", 0, listener.getNotEmptyNotofications(500).size());
+
+        // The server must no longer be following registrations.
+        ObjectName afterRemoval = registerNotificationBean("afterRemoval");
+        notify(afterRemoval, "Removed");
+        assertEquals("Removed listener notifications", 0, listener.getNotEmptyNotofications(500).size());
+    }
+
+    private void notify(final ObjectName name, final String message) throws Exception {
+        connection.invoke(name, "notify", new Object[] { message }, new String[] { String.class.getName() });
+    }
+
+    private void verifyReceived(final Listener listener, final String message, final ObjectName source) throws Exception {
+        Set<Pair> notifications = listener.getNotEmptyNotofications(2000);
+        assertEquals("Notifications", 1, notifications.size());
+        Pair pair = notifications.iterator().next();
+        assertEquals("Message", message, pair.notification.getUserData());
+        assertEquals("Source", source, pair.notification.getSource());
+        assertEquals("Handback", "pattern", pair.handback);
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.RECONNECT;
+import static org.jboss.remotingjmx.Constants.RECONNECT_INITIAL_DELAY;
+import static org.jboss.remotingjmx.Constants.RECONNECT_MAX_ATTEMPTS;
+import static org.jboss.remotingjmx.common.Constants.PROTOCOL;
+import static org.jboss.remotingjmx.common.JMXRemotingServer.DEFAULT_PORT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.jboss.remoting3.Endpoint;
+
+import org.jboss.remotingjmx.common.JMXRemotingServer;
+import org.jboss.remotingjmx.common.JMXRemotingServer.JMXRemotingConfig;
+import org.jboss.remotingjmx.common.Listener;
+import org.jboss.remotingjmx.common.Listener.Pair;
+import org.jboss.remotingjmx.common.NotificationBean;
+import org.junit.Test;
+
+/**
+ * Test case for the automatic reconnection of a connector including the registration of the notification listeners again.
+ */
+public class ReconnectTest extends AbstractTestBase {
+
+    @Test
+    public void testReconnect() throws Exception {
+        ObjectName notificationName = new ObjectName(DEFAULT_DOMAIN, "test", "reconnect");
+        mbeanServer.registerMBean(new NotificationBean(), notificationName);
+
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(RECONNECT, true);
+        environment.put(RECONNECT_INITIAL_DELAY, 100);
+
+        final BlockingQueue<JMXConnectionNotification> connectionNotifications = new LinkedBlockingQueue<JMXConnectionNotification>();
+        JMXConnector testConnector = JMXConnectorFactory.connect(serviceURL, environment);
+        try {
+            testConnector.addConnectionNotificationListener(new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    connectionNotifications.add((JMXConnectionNotification) notification);
+                }
+            }, null, null);
+
+            MBeanServerConnection connection = testConnector.getMBeanServerConnection();
+            String firstConnectionId = testConnector.getConnectionId();
+            Listener listener = new Listener();
+            String handback = "HANDBACK";
+            connection.addNotificationListener(notificationName, listener, null, handback);
+
+            // Close the underlying connection without closing the connector.
+            ((RemotingMBeanServerConnection) connection).getConnection().close();
+
+            JMXConnectionNotification notification = connectionNotifications.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Connection notification received", notification);
+            assertEquals("Type", JMXConnectionNotification.NOTIFS_LOST, notification.getType());
+            String secondConnectionId = testConnector.getConnectionId();
+            assertEquals("Connection ID", secondConnectionId, notification.getConnectionId());
+            assertFalse("New connection", firstConnectionId.equals(secondConnectionId));
+
+            // The same MBeanServerConnection is still usable and the listener has been registered again.
+            assertEquals("Default Domain", DEFAULT_DOMAIN, connection.getDefaultDomain());
+            String theMessage = "After Reconnect";
+            connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+            Set<Pair> notifications = listener.getNotEmptyNotofications(2000);
+            assertEquals("Notifications", 1, notifications.size());
+            Pair pair = notifications.iterator().next();
+            assertEquals("Message", theMessage, pair.notification.getUserData());
+            assertEquals("Handback", handback, pair.handback);
+
+            // The replayed listener can be removed as normal.
+            connection.removeNotificationListener(notificationName, listener);
+            connection.invoke(notificationName, "notify", new Object[] { theMessage }, new String[] { String.class.getName() });
+            assertTrue("No notifications", listener.getNotEmptyNotofications(500).isEmpty());
+        } finally {
+            testConnector.close();
+            mbeanServer.unregisterMBean(notificationName);
+        }
+    }
+
+    @Test
+    public void testReconnectFailed() throws Exception {
+        Endpoint endpoint = Endpoint.builder().build();
+        JMXRemotingConfig config = new JMXRemotingConfig();
+        config.endpoint = endpoint;
+        config.mbeanServer = mbeanServer;
+        config.host = bindAddress;
+        config.port = DEFAULT_PORT + 2;
+        JMXRemotingServer server = new JMXRemotingServer(config);
+        server.start();
+
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(RECONNECT, true);
+        environment.put(RECONNECT_INITIAL_DELAY, 100);
+        environment.put(RECONNECT_MAX_ATTEMPTS, 2);
+
+        final BlockingQueue<JMXConnectionNotification> connectionNotifications = new LinkedBlockingQueue<JMXConnectionNotification>();
+        JMXConnector testConnector = JMXConnectorFactory.connect(new JMXServiceURL(PROTOCOL, bindAddress, config.port),
+                environment);
+        try {
+            testConnector.addConnectionNotificationListener(new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    connectionNotifications.add((JMXConnectionNotification) notification);
+                }
+            }, null, null);
+
+            MBeanServerConnection connection = testConnector.getMBeanServerConnection();
+            assertEquals("Default Domain", DEFAULT_DOMAIN, connection.getDefaultDomain());
+
+            // With the server gone every reconnection attempt fails.
+            server.stop();
+            endpoint.close();
+
+            JMXConnectionNotification notification = connectionNotifications.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Connection notification received", notification);
+            assertEquals("Type", JMXConnectionNotification.FAILED, notification.getType());
+
+            try {
+                connection.getDefaultDomain();
+                fail("Expected IOException");
+            } catch (IOException expected) {
+            }
+            try {
+                testConnector.getConnectionId();
+                fail("Expected IOException");
+            } catch (IOException expected) {
+            }
+        } finally {
+            testConnector.close();
+        }
+    }
+
+}
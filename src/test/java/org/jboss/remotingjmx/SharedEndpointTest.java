@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx;
+
+import static org.jboss.remotingjmx.Constants.ENDPOINT_IO_THREADS;
+import static org.jboss.remotingjmx.Constants.SHARED_ENDPOINT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Test case comparing connectors using their own Endpoint with connectors using a shared Endpoint.
+ *
+ * The connect latency and thread counts are logged, the only assertion on the thread count is that sharing an Endpoint uses
+ * fewer threads.
+ */
+public class SharedEndpointTest extends AbstractTestBase {
+
+    private static final Logger log = Logger.getLogger(SharedEndpointTest.class);
+
+    private static final int CONNECTOR_COUNT = 10;
+
+    @Test
+    public void testSharedEndpoint() throws Exception {
+        Map<String, Object> environment = new HashMap<String, Object>();
+        environment.put(ENDPOINT_IO_THREADS, 2);
+        int dedicatedThreads = connectAll(environment, "dedicated");
+
+        environment.put(SHARED_ENDPOINT, true);
+        int sharedThreads = connectAll(environment, "shared");
+
+        assertTrue(String.format("Shared endpoint threads %d, dedicated endpoint threads %d", sharedThreads, dedicatedThreads),
+                sharedThreads < dedicatedThreads);
+
+        // Once all connectors using the shared endpoint are closed a new shared endpoint is created.
+        sharedThreads = connectAll(environment, "shared");
+        assertTrue(String.format("Shared endpoint threads %d, dedicated endpoint threads %d", sharedThreads, dedicatedThreads),
+                sharedThreads < dedicatedThreads);
+    }
+
+    /**
+     * Connect {@link #CONNECTOR_COUNT} connectors, log the connection times and thread count and close them again.
+     *
+     * @return The number of additional threads whilst the connectors were connected.
+     */
+    private int connectAll(final Map<String, ?> environment, final String mode) throws IOException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threadMXBean.getThreadCount();
+
+        List<JMXConnector> connectors = new ArrayList<JMXConnector>(CONNECTOR_COUNT);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < CONNECTOR_COUNT; i++) {
+                JMXConnector connector = JMXConnectorFactory.connect(serviceURL, environment);
+                connectors.add(connector);
+                assertEquals("MBean count", mbeanServer.getMBeanCount(), connector.getMBeanServerConnection().getMBeanCount());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            int additionalThreads = threadMXBean.getThreadCount() - threadsBefore;
+            log.infof("%d connectors using %s endpoints, average connect time %d ms, additional threads %d", CONNECTOR_COUNT,
+                    mode, TimeUnit.NANOSECONDS.toMillis(elapsed / CONNECTOR_COUNT), additionalThreads);
+
+            return additionalThreads;
+        } finally {
+            for (JMXConnector current : connectors) {
+                current.close();
+            }
+        }
+    }
+
+}
@@ -94,6 +94,7 @@ public class JMXRemotingServer {
     private final Set<String> saslMechanisms;
     private final String excludedVersions;
     private final MBeanServerLocator mbeanServerLocator;
+    private final Map<String, Object> environment;
     private final ServerMessageInterceptorFactory serverMessageInterceptorFactory;
     private final SecurityDomain securityDomain;
 
@@ -137,6 +138,7 @@ public class JMXRemotingServer {
         }
         excludedVersions = config.excludedVersions;
         mbeanServerLocator = config.mbeanServerLocator;
+        environment = config.environment;
         this.serverMessageInterceptorFactory = config.serverMessageInterceptorFactory;
         if (config.endpoint != null) {
             endpoint = config.endpoint;
@@ -176,6 +178,9 @@ public class JMXRemotingServer {
         server = nsp.createServer(bindAddress, serverOptions, authFactory, null);
 
         Map<String, Object> configMap = new HashMap<String, Object>();
+        if (environment != null) {
+            configMap.putAll(environment);
+        }
         if (excludedVersions != null) {
             configMap.put(EXCLUDED_VERSIONS, excludedVersions);
         }
@@ -262,6 +267,7 @@ public class JMXRemotingServer {
         public String excludedVersions = null;
         public MBeanServerLocator mbeanServerLocator = null;
         public ServerMessageInterceptorFactory serverMessageInterceptorFactory = null;
+        public Map<String, Object> environment = null;
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.common;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An MBean with an operation that takes a long time to complete, used to verify that the operation is interrupted once the
+ * client has given up waiting for it.
+ */
+public class SlowBean implements SlowBeanMBean {
+
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    @Override
+    public void sleep(final long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+            completed.countDown();
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+    }
+
+    /**
+     * Wait for a call to sleep to complete without being interrupted.
+     *
+     * @return true if a call to sleep completed before the timeout elapsed.
+     */
+    public boolean awaitCompleted(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return completed.await(timeout, unit);
+    }
+
+    /**
+     * Wait for a call to sleep to be interrupted.
+     *
+     * @return true if a call to sleep was interrupted before the timeout elapsed.
+     */
+    public boolean awaitInterrupted(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return interrupted.await(timeout, unit);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.jboss.remotingjmx.common.MyBean;
+import org.junit.Test;
+
+/**
+ * Test case for the sharing and release of the ClassLoaderCache.
+ */
+public class ClassLoaderCacheTest {
+
+    @Test
+    public void testCacheReleased() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:type=classLoaderCache");
+        server.registerMBean(new MyBean(), name);
+
+        ClassLoaderCache first = ClassLoaderCache.getCache(server);
+        ClassLoaderCache second = ClassLoaderCache.getCache(server);
+        assertSame("Shared cache", first, second);
+        assertSame("Cached ClassLoader", first.getClassLoaderFor(server, name), first.getClassLoaderFor(server, name));
+
+        // Still referenced by the second connection.
+        first.release();
+        assertSame("Cached ClassLoader", second.getClassLoaderFor(server, name), second.getClassLoaderFor(server, name));
+
+        // Once fully released nothing further is cached and the next connection gets a new cache.
+        second.release();
+        assertNotSame("Not cached", second.getClassLoaderFor(server, name), second.getClassLoaderFor(server, name));
+        ClassLoaderCache third = ClassLoaderCache.getCache(server);
+        assertNotSame("New cache", first, third);
+        assertSame("Cached ClassLoader", third.getClassLoaderFor(server, name), third.getClassLoaderFor(server, name));
+        third.release();
+    }
+
+    @Test
+    public void testInvalidatedOnUnregistration() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:type=classLoaderCache");
+        server.registerMBean(new MyBean(), name);
+
+        ClassLoaderCache cache = ClassLoaderCache.getCache(server);
+        try {
+            ClassLoaderCache.CachedClassLoader cached = cache.getClassLoaderFor(server, name);
+            server.unregisterMBean(name);
+            server.registerMBean(new MyBean(), name);
+            assertNotSame("Invalidated", cached, cache.getClassLoaderFor(server, name));
+        } finally {
+            cache.release();
+        }
+    }
+
+}
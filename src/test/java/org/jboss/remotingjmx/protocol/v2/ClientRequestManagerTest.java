@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.jboss.remotingjmx.protocol.v2.Constants.GET_DEFAULT_DOMAIN;
+import static org.jboss.remotingjmx.protocol.v2.Constants.INVOKE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.xnio.IoFuture;
+
+/**
+ * Test case for the expiry of pending requests by the ClientRequestManager and the TimerWheel it uses.
+ */
+public class ClientRequestManagerTest {
+
+    @Test
+    public void testRequestExpired() throws Exception {
+        ClientRequestManager manager = new ClientRequestManager(1);
+        final CountDownLatch expiredLatch = new CountDownLatch(1);
+        manager.setExpiryListener(new ClientRequestManager.ExpiryListener() {
+
+            @Override
+            public void requestExpired(int correlationId, byte messageType) {
+                expiredLatch.countDown();
+            }
+        });
+
+        VersionedIoFuture<Object> expiring = new VersionedIoFuture<Object>();
+        int expiringId = manager.reserveNextCorrelationId(expiring, INVOKE);
+
+        // Nothing waits on the future, it is failed by the timer alone.
+        assertTrue("Request expired", expiredLatch.await(5, TimeUnit.SECONDS));
+        VersionedIoFuture<Object> pending = new VersionedIoFuture<Object>();
+        int pendingId = manager.reserveNextCorrelationId(pending, GET_DEFAULT_DOMAIN);
+        assertEquals("Status", IoFuture.Status.FAILED, expiring.getStatus());
+        IOException failure = expiring.getException();
+        assertTrue("TimeoutException cause", failure.getCause() instanceof TimeoutException);
+
+        assertNull("Expired request removed", manager.getFuture(expiringId));
+        assertNull("Nothing to release", manager.releaseCorrelationId(expiringId));
+        assertSame("Pending request", pending, manager.getFuture(pendingId));
+        assertEquals("Pending requests", 1, manager.getPendingRequests());
+
+        assertEquals("Timed out invoke requests", 1, manager.getTimedOutRequests(INVOKE));
+        assertEquals("Timed out getDefaultDomain requests", 0, manager.getTimedOutRequests(GET_DEFAULT_DOMAIN));
+        assertEquals("Total timed out requests", 1, manager.getTimedOutRequests());
+        assertEquals("Timed out requests by name", Collections.singletonMap("invoke", 1L), manager.getTimedOutRequestsByName());
+
+        assertSame("Released future", pending, manager.releaseCorrelationId(pendingId));
+        assertEquals("Timed out requests", 1, manager.getTimedOutRequests());
+        manager.cancelAllRequests(new IOException("Test Complete"));
+    }
+
+    @Test
+    public void testTimerStopsWhenIdle() throws Exception {
+        ClientRequestManager manager = new ClientRequestManager(30);
+        assertFalse("Timer not running", manager.isTimerRunning());
+        int correlationId = manager.reserveNextCorrelationId(new VersionedIoFuture<Object>(), INVOKE);
+        assertTrue("Timer running", manager.isTimerRunning());
+
+        manager.releaseCorrelationId(correlationId);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.isTimerRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertFalse("Timer stopped", manager.isTimerRunning());
+
+        manager.reserveNextCorrelationId(new VersionedIoFuture<Object>(), INVOKE);
+        assertTrue("Timer running", manager.isTimerRunning());
+        manager.cancelAllRequests(new IOException("Test Complete"));
+        assertFalse("Timer stopped", manager.isTimerRunning());
+    }
+
+    @Test
+    public void testCancelAllRequests() {
+        ClientRequestManager manager = new ClientRequestManager(30);
+        VersionedIoFuture<Object> future = new VersionedIoFuture<Object>();
+        manager.reserveNextCorrelationId(future, INVOKE);
+
+        manager.cancelAllRequests(new IOException("Connection Ended"));
+        assertEquals("Status", IoFuture.Status.FAILED, future.getStatus());
+        assertEquals("Pending requests", 0, manager.getPendingRequests());
+        assertEquals("Timed out requests", 0, manager.getTimedOutRequests());
+    }
+
+    @Test
+    public void testTimerWheel() throws Exception {
+        // A wheel with a single revolution of 40ms so most entries need more than one revolution.
+        TimerWheel<TestEntry> wheel = new TimerWheel<TestEntry>(10, TimeUnit.MILLISECONDS, 4);
+        TestEntry shortEntry = new TestEntry();
+        TestEntry longEntry = new TestEntry();
+        TestEntry cancelledEntry = new TestEntry();
+        wheel.schedule(shortEntry, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(longEntry, 1000, TimeUnit.MILLISECONDS);
+        wheel.schedule(cancelledEntry, 20, TimeUnit.MILLISECONDS);
+        assertEquals("Size", 3, wheel.size());
+
+        assertTrue("Cancelled", wheel.cancel(cancelledEntry));
+        assertFalse("Already cancelled", wheel.cancel(cancelledEntry));
+
+        List<TestEntry> expired = new ArrayList<TestEntry>();
+        Thread.sleep(60);
+        wheel.expire(expired);
+        assertEquals("Expired", 1, expired.size());
+        assertSame("Expired", shortEntry, expired.get(0));
+        assertEquals("Size", 1, wheel.size());
+
+        expired.clear();
+        Thread.sleep(1000);
+        wheel.expire(expired);
+        assertEquals("Expired", 1, expired.size());
+        assertSame("Expired", longEntry, expired.get(0));
+        assertEquals("Size", 0, wheel.size());
+        assertFalse("Already expired", wheel.cancel(longEntry));
+    }
+
+    private static class TestEntry extends TimerWheel.Entry {
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Test case for the detection of missed heartbeats.
+ */
+public class HeartbeatTest {
+
+    @Test
+    public void testMissedHeartbeats() {
+        TestPeer peer = new TestPeer();
+        Heartbeat heartbeat = new Heartbeat(peer, 3);
+        assertEquals("Round trip time", -1, heartbeat.getRoundTripNanos());
+
+        heartbeat.run();
+        assertEquals("Pings", 1, peer.pings);
+        heartbeat.pongReceived();
+        assertTrue("Round trip time recorded", heartbeat.getRoundTripNanos() >= 0);
+
+        // Two missed heartbeats are tolerated and reset once the pong is received.
+        heartbeat.run();
+        heartbeat.run();
+        heartbeat.run();
+        assertEquals("Pings", 2, peer.pings);
+        heartbeat.pongReceived();
+        assertNull("Not failed", peer.failure);
+
+        heartbeat.run();
+        heartbeat.run();
+        heartbeat.run();
+        assertNull("Not failed", peer.failure);
+        heartbeat.run();
+        assertNotNull("Failed", peer.failure);
+        assertEquals("Pings", 3, peer.pings);
+
+        // Once failed nothing further happens.
+        IOException failure = peer.failure;
+        heartbeat.run();
+        assertEquals("Pings", 3, peer.pings);
+        assertEquals("Failure", failure, peer.failure);
+    }
+
+    private static class TestPeer implements Heartbeat.Peer {
+
+        private int pings = 0;
+        private IOException failure;
+
+        @Override
+        public void ping() {
+            pings++;
+        }
+
+        @Override
+        public void failed(IOException reason) {
+            assertNull("Only failed once", failure);
+            failure = reason;
+        }
+
+    }
+
+}
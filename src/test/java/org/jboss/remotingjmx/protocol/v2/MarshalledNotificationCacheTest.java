@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Notification;
+
+import org.junit.Test;
+
+/**
+ * Test case for the caching of marshalled notifications.
+ */
+public class MarshalledNotificationCacheTest {
+
+    @Test
+    public void testMarshalledOnce() throws Exception {
+        MarshalledNotificationCache cache = new MarshalledNotificationCache(2);
+        CountingMarshaller marshaller = new CountingMarshaller();
+        Notification notification = new Notification("test", "source", 1);
+
+        byte[] first = cache.getMarshalled(notification, marshaller);
+        assertSame("Cached", first, cache.getMarshalled(notification, marshaller));
+        assertEquals("Marshalled", 1, marshaller.count.get());
+
+        // An equal but different Notification is marshalled separately.
+        assertNotSame("Not cached", first, cache.getMarshalled(new Notification("test", "source", 1), marshaller));
+
+        // A modified Notification is marshalled again.
+        notification.setUserData("modified");
+        assertNotSame("Not cached", first, cache.getMarshalled(notification, marshaller));
+        assertEquals("Marshalled", 3, marshaller.count.get());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        MarshalledNotificationCache cache = new MarshalledNotificationCache(2);
+        CountingMarshaller marshaller = new CountingMarshaller();
+        Notification first = new Notification("test", "source", 1);
+
+        cache.getMarshalled(first, marshaller);
+        cache.getMarshalled(new Notification("test", "source", 2), marshaller);
+        cache.getMarshalled(new Notification("test", "source", 3), marshaller);
+        cache.getMarshalled(first, marshaller);
+        assertEquals("Marshalled", 4, marshaller.count.get());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        MarshalledNotificationCache cache = new MarshalledNotificationCache(0);
+        CountingMarshaller marshaller = new CountingMarshaller();
+        Notification notification = new Notification("test", "source", 1);
+
+        byte[] first = cache.getMarshalled(notification, marshaller);
+        assertNotSame("Not cached", first, cache.getMarshalled(notification, marshaller));
+        assertEquals("Marshalled", 2, marshaller.count.get());
+    }
+
+    @Test
+    public void testConcurrentFanOut() throws Exception {
+        final MarshalledNotificationCache cache = new MarshalledNotificationCache(2);
+        final CountingMarshaller marshaller = new CountingMarshaller();
+        final Notification notification = new Notification("test", "source", 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(new Callable<byte[]>() {
+
+                    @Override
+                    public byte[] call() throws Exception {
+                        return cache.getMarshalled(notification, marshaller);
+                    }
+                }));
+            }
+            byte[] expected = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<byte[]> current : results) {
+                assertSame("Cached", expected, current.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Marshalled", 1, marshaller.count.get());
+    }
+
+    private static class CountingMarshaller implements MarshalledNotificationCache.NotificationMarshaller {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public byte[] marshal(Notification notification) throws IOException {
+            return new byte[] { (byte) count.incrementAndGet() };
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * A lightweight benchmark of listener registration churn with concurrent lookups, the rates are logged and not asserted.
+ */
+public class NotificationListenerRegistryBenchmarkTest {
+
+    private static final Logger log = Logger.getLogger(NotificationListenerRegistryBenchmarkTest.class);
+
+    private static final int LISTENER_COUNT = 20000;
+    private static final int CHURN_ITERATIONS = 20000;
+    private static final int MBEAN_COUNT = 100;
+
+    @Test
+    public void testRegistrationChurn() throws Exception {
+        final NotificationListenerRegistry registry = new NotificationListenerRegistry();
+        ObjectName[] names = new ObjectName[MBEAN_COUNT];
+        for (int i = 0; i < MBEAN_COUNT; i++) {
+            names[i] = new ObjectName("test:type=benchmark,id=" + i);
+        }
+
+        final int[] ids = new int[LISTENER_COUNT];
+        for (int i = 0; i < LISTENER_COUNT; i++) {
+            ids[i] = registry.associate(names[i % MBEAN_COUNT], new TestListener(), null, null);
+        }
+
+        // Look up the established listeners whilst the churn is in progress as happens when notifications are received.
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong lookups = new AtomicLong();
+        Thread reader = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                int i = 0;
+                while (running.get()) {
+                    registry.get(ids[i++ % LISTENER_COUNT]);
+                    lookups.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < CHURN_ITERATIONS; i++) {
+                ObjectName name = names[i % MBEAN_COUNT];
+                NotificationListener listener = new TestListener();
+                registry.associate(name, listener, null, null);
+                assertEquals("Removed", 1, registry.matchToRemove(name, listener).length);
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals("Size", LISTENER_COUNT, registry.size());
+        log.infof("%d add / remove cycles with %d listeners took %d ms, %d per second, %d concurrent lookups", CHURN_ITERATIONS,
+                LISTENER_COUNT, TimeUnit.NANOSECONDS.toMillis(elapsed), CHURN_ITERATIONS * TimeUnit.SECONDS.toNanos(1)
+                        / Math.max(elapsed, 1), lookups.get());
+    }
+
+    private static class TestListener implements NotificationListener {
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+        }
+
+    }
+
+}
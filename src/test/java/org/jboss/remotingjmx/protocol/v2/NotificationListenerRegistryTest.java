@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2026 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.remotingjmx.protocol.v2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.management.Notification;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * Test case for the indexing of the notification listeners registered by a client.
+ */
+public class NotificationListenerRegistryTest {
+
+    private static final NotificationFilter FILTER = new NotificationFilter() {
+
+        @Override
+        public boolean isNotificationEnabled(Notification notification) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMatchListener() throws Exception {
+        NotificationListenerRegistry registry = new NotificationListenerRegistry();
+        ObjectName name = new ObjectName("test:type=registry");
+        NotificationListener listener = new TestListener();
+        NotificationListener other = new TestListener();
+
+        int first = registry.associate(name, listener, null, null);
+        int second = registry.associate(new ObjectName("test:type=registry"), listener, FILTER, "handback");
+        int third = registry.associate(name, other, null, null);
+        assertSame("Association", listener, registry.get(first).listener);
+
+        // Only the associations for the same listener are removed.
+        assertArrayEquals("Removed", new int[] { first, second }, registry.matchToRemove(name, listener));
+        assertNull("Removed", registry.get(first));
+        assertNull("Removed", registry.get(second));
+        assertSame("Retained", other, registry.get(third).listener);
+        assertEquals("Size", 1, registry.size());
+        assertEquals("Removed", 0, registry.matchToRemove(name, listener).length);
+    }
+
+    @Test
+    public void testMatchListenerFilterHandback() throws Exception {
+        NotificationListenerRegistry registry = new NotificationListenerRegistry();
+        ObjectName name = new ObjectName("test:type=registry");
+        NotificationListener listener = new TestListener();
+        String handback = "handback";
+
+        int first = registry.associate(name, listener, FILTER, handback);
+        int second = registry.associate(name, listener, null, handback);
+
+        assertEquals("Removed", 0, registry.matchToRemove(name, listener, FILTER, "other").length);
+        assertArrayEquals("Removed", new int[] { first }, registry.matchToRemove(name, listener, FILTER, handback));
+        assertSame("Retained", listener, registry.get(second).listener);
+
+        registry.cancel(second);
+        assertEquals("Size", 0, registry.size());
+        assertEquals("Removed", 0, registry.matchToRemove(name, listener).length);
+    }
+
+    private static class TestListener implements NotificationListener {
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+        }
+
+    }
+
+}